@@ -0,0 +1,43 @@
+package bookstore;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * The {@code BenchmarkRunner} class runs the benchmark suite with the GC profiler always
+ * on, so every result reports throughput, latency percentiles and allocation rate.
+ * <p>
+ * It takes the usual JMH options, for example
+ * {@code java -jar benchmarks/target/benchmarks.jar QueryBenchmark -p size=100,10000}.
+ *
+ * @version 1.0
+ */
+public final class BenchmarkRunner
+{
+    private BenchmarkRunner()
+    {
+    }
+
+    /**
+     * Runs the benchmarks selected by the arguments, or all of them.
+     *
+     * @param args JMH command line options
+     * @throws CommandLineOptionException if the options cannot be parsed
+     * @throws RunnerException            if a benchmark fails
+     */
+    public static void main(final String[] args) throws CommandLineOptionException, RunnerException
+    {
+        final Options options;
+
+        options = new OptionsBuilder().parent(new CommandLineOptions(args))
+                                      .addProfiler(GCProfiler.class)
+                                      .build();
+
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,86 @@
+package bookstore;
+
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * The {@code CatalogState} class is the fixture every benchmark shares: a synthetic
+ * catalog of the benchmarked size and a store stocked with it, built once per fork
+ * outside the measurement.
+ * <p>
+ * Catalogs of ten million novels need a heap of several gigabytes; pass one with
+ * {@code -jvmArgs -Xmx8g}, or pick smaller sizes with {@code -p size=100,10000}.
+ *
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+public class CatalogState
+{
+    private static final long LOOKUP_STRIDE = 7_919L;
+
+    /**
+     * The number of novels in the catalog.
+     */
+    @Param({"100", "10000", "1000000", "10000000"})
+    public int size;
+
+    List<Novel>      novels;
+    BookStore<Novel> store;
+    String[]         titles;
+
+    /**
+     * Builds the catalog, the store and a copy of every title.
+     */
+    @Setup(Level.Trial)
+    public void setUp()
+    {
+        novels = SyntheticCatalog.novels(size);
+        store  = new BookStore<>("Benchmark", novels);
+        titles = new String[novels.size()];
+
+        for(int i = 0; i < titles.length; ++i)
+        {
+            // copies hash and compare the way a caller's string would, without a cached hash
+            titles[i] = new String(novels.get(i).getTitle());
+        }
+    }
+
+    /**
+     * Returns the title of a catalog row for the given iteration, striding so successive
+     * lookups land far apart in memory.
+     *
+     * @param iteration the number of calls made so far
+     * @return a stocked title
+     */
+    String titleFor(final int iteration)
+    {
+        return titles[(int) ((iteration * LOOKUP_STRIDE) % titles.length)];
+    }
+
+    /**
+     * Returns a year inside the synthetic range for the given iteration.
+     *
+     * @param iteration the number of calls made so far
+     * @return a year novels may have been published in
+     */
+    static int yearFor(final int iteration)
+    {
+        return SyntheticCatalog.FIRST_YEAR + (int) ((iteration * LOOKUP_STRIDE) % SyntheticCatalog.YEAR_SPAN);
+    }
+
+    /**
+     * Returns one of the synthetic authors for the given iteration.
+     *
+     * @param iteration the number of calls made so far
+     * @return an author's name
+     */
+    static String authorFor(final int iteration)
+    {
+        return SyntheticCatalog.author((int) ((iteration * LOOKUP_STRIDE) % SyntheticCatalog.AUTHOR_COUNT));
+    }
+}
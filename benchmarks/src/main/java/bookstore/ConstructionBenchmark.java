@@ -0,0 +1,52 @@
+package bookstore;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The {@code ConstructionBenchmark} class measures building novels and stores: the sample
+ * catalog, a store stocked and indexed from the shared {@link CatalogState} catalog, and
+ * the {@link Novel#compareTo(Novel)} based alphabetical sort.
+ *
+ * @version 1.0
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConstructionBenchmark
+{
+    @Benchmark
+    public List<Novel> createNovelList()
+    {
+        return Novel.createNovelList();
+    }
+
+    @Benchmark
+    public BookStore<Novel> newBookStore(final CatalogState catalog)
+    {
+        return new BookStore<>("Benchmark", catalog.novels);
+    }
+
+    @Benchmark
+    public List<Novel> sortByCompareTo(final CatalogState catalog)
+    {
+        final List<Novel> copy;
+
+        copy = new ArrayList<>(catalog.novels);
+        Collections.sort(copy);
+
+        return copy;
+    }
+}
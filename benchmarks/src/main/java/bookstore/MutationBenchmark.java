@@ -0,0 +1,88 @@
+package bookstore;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The {@code MutationBenchmark} class measures changes to a {@link BookStore}: adding and
+ * then removing a novel, which keeps the catalog the same size, and bulk removal and
+ * retention, which run on a fresh store for every call.
+ *
+ * @version 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MutationBenchmark
+{
+    private static final int EXTRA_NOVELS = 1_024;
+    private static final int KEEP_MODULUS = 2;
+
+    private Novel[]          extra;
+    private BookStore<Novel> fresh;
+    private int              iteration;
+
+    /**
+     * Builds the novels added and removed again, none of which the catalog holds.
+     */
+    @Setup(Level.Trial)
+    public void setUp()
+    {
+        extra = new Novel[EXTRA_NOVELS];
+
+        for(int i = 0; i < extra.length; ++i)
+        {
+            extra[i] = new Novel("benchmark extra " + i, CatalogState.authorFor(i), CatalogState.yearFor(i));
+        }
+    }
+
+    /**
+     * Stocks a new store for the bulk removal to empty.
+     *
+     * @param catalog the shared catalog
+     */
+    @Setup(Level.Invocation)
+    public void stockFreshStore(final CatalogState catalog)
+    {
+        fresh = new BookStore<>("Benchmark", catalog.novels);
+    }
+
+    @Benchmark
+    public boolean addNovelThenRemoveNovel(final CatalogState catalog)
+    {
+        final Novel novel;
+
+        novel     = extra[iteration];
+        iteration = (iteration + 1) % extra.length;
+
+        catalog.store.addNovel(novel);
+
+        return catalog.store.removeNovel(novel.getTitle());
+    }
+
+    @Benchmark
+    public int removeIf()
+    {
+        return fresh.removeIf(novel -> novel.getYearPublished() % KEEP_MODULUS == 0);
+    }
+
+    @Benchmark
+    public int retainIf()
+    {
+        return fresh.retainIf(novel -> novel.getYearPublished() % KEEP_MODULUS == 0);
+    }
+}
@@ -0,0 +1,259 @@
+package bookstore;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The {@code QueryBenchmark} class measures every read query of {@link BookStore} over the
+ * shared {@link CatalogState} catalog. Each call varies its arguments with the number of
+ * calls made so far, so no single answer is measured over and over. Printing queries
+ * write to a discarding writer, so the numbers measure the query rather than the terminal.
+ *
+ * @version 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QueryBenchmark
+{
+    private static final String[] SEARCH_TERMS   = {"the", "heart", "golden river", "zz"};
+    private static final String[] FUZZY_TERMS    = {"hearts", "goldn river", "shadw", "zzzz"};
+    private static final String[] PREFIXES       = {"the", "golden", "s", "zz"};
+    private static final int      PERCENT_RANGE  = 50;
+    private static final int      LENGTH_MODULUS = 40;
+    private static final int      TOP_K          = 10;
+    private static final int      PAGE_SIZE      = 20;
+    private static final int      FUZZY_EDITS    = 1;
+
+    private final Writer out = Writer.nullWriter();
+
+    private BatchQuery                 batch;
+    private List<CompiledQuery<Novel>> queries;
+    private int                        iteration;
+
+    /**
+     * Builds the batch and the compiled queries, one per plan the store can pick.
+     */
+    @Setup(Level.Trial)
+    public void setUp()
+    {
+        batch = new BatchQuery();
+
+        for(String term : SEARCH_TERMS)
+        {
+            batch.countContaining(term);
+        }
+
+        batch.percentWrittenBetween(SyntheticCatalog.FIRST_YEAR, SyntheticCatalog.FIRST_YEAR + PERCENT_RANGE);
+        batch.writtenIn(SyntheticCatalog.FIRST_YEAR);
+        batch.withLength(LENGTH_MODULUS / 2);
+
+        queries = List.of(
+                new LiteratureQuery<Novel>().writtenBy(CatalogState.authorFor(0)).compile(),
+                new LiteratureQuery<Novel>().publishedBetween(SyntheticCatalog.FIRST_YEAR, SyntheticCatalog.FIRST_YEAR + 1)
+                                            .limit(PAGE_SIZE)
+                                            .compile(),
+                new LiteratureQuery<Novel>().titleContains("heart")
+                                            .publishedBetween(SyntheticCatalog.FIRST_YEAR,
+                                                              SyntheticCatalog.FIRST_YEAR + SyntheticCatalog.YEAR_SPAN)
+                                            .compile(),
+                new LiteratureQuery<Novel>().titleContains("a").limit(PAGE_SIZE).compile());
+    }
+
+    @Benchmark
+    public Novel getNovel(final CatalogState catalog)
+    {
+        return catalog.store.getNovel(catalog.titleFor(next()));
+    }
+
+    @Benchmark
+    public List<String> getTitles(final CatalogState catalog)
+    {
+        return catalog.store.getTitles();
+    }
+
+    @Benchmark
+    public List<Novel> getNovels(final CatalogState catalog)
+    {
+        return catalog.store.getNovels();
+    }
+
+    @Benchmark
+    public Writer printAllTitles(final CatalogState catalog) throws IOException
+    {
+        catalog.store.printAllTitles(out);
+        return out;
+    }
+
+    @Benchmark
+    public Writer printBookTitle(final CatalogState catalog) throws IOException
+    {
+        catalog.store.printBookTitle(SEARCH_TERMS[next() % SEARCH_TERMS.length], out);
+        return out;
+    }
+
+    @Benchmark
+    public Writer printTitlesInAlphaOrder(final CatalogState catalog) throws IOException
+    {
+        catalog.store.printTitlesInAlphaOrder(out);
+        return out;
+    }
+
+    @Benchmark
+    public List<Novel> getNovelsByYear(final CatalogState catalog)
+    {
+        return catalog.store.getNovelsByYear();
+    }
+
+    @Benchmark
+    public List<Novel> getNovelsByAuthor(final CatalogState catalog)
+    {
+        return catalog.store.getNovelsByAuthor();
+    }
+
+    @Benchmark
+    public Writer printGroupByDecade(final CatalogState catalog) throws IOException
+    {
+        catalog.store.printGroupByDecade(CatalogState.yearFor(next()), out);
+        return out;
+    }
+
+    @Benchmark
+    public Writer printLongest(final CatalogState catalog) throws IOException
+    {
+        catalog.store.printLongest(out);
+        return out;
+    }
+
+    @Benchmark
+    public boolean isThereABookWrittenIn(final CatalogState catalog)
+    {
+        return catalog.store.isThereABookWrittenIn(CatalogState.yearFor(next()));
+    }
+
+    @Benchmark
+    public int howManyBooksContain(final CatalogState catalog)
+    {
+        return catalog.store.howManyBooksContain(SEARCH_TERMS[next() % SEARCH_TERMS.length]);
+    }
+
+    @Benchmark
+    public double whichPercentWrittenBetween(final CatalogState catalog)
+    {
+        final int year;
+
+        year = CatalogState.yearFor(next());
+
+        return catalog.store.whichPercentWrittenBetween(year, year + PERCENT_RANGE);
+    }
+
+    @Benchmark
+    public Novel getOldestBook(final CatalogState catalog)
+    {
+        return catalog.store.getOldestBook();
+    }
+
+    @Benchmark
+    public int countBooksWrittenBetween(final CatalogState catalog)
+    {
+        final int year;
+
+        year = CatalogState.yearFor(next());
+
+        return catalog.store.countBooksWrittenBetween(year, year + PERCENT_RANGE);
+    }
+
+    @Benchmark
+    public List<Novel> getBooksThisLength(final CatalogState catalog)
+    {
+        return catalog.store.getBooksThisLength(next() % LENGTH_MODULUS);
+    }
+
+    @Benchmark
+    public List<Novel> getBooksBy(final CatalogState catalog)
+    {
+        return catalog.store.getBooksBy(CatalogState.authorFor(next()));
+    }
+
+    @Benchmark
+    public int countBooksBy(final CatalogState catalog)
+    {
+        return catalog.store.countBooksBy(CatalogState.authorFor(next()));
+    }
+
+    @Benchmark
+    public BatchResult run(final CatalogState catalog)
+    {
+        return catalog.store.run(batch);
+    }
+
+    @Benchmark
+    public List<Novel> topK(final CatalogState catalog)
+    {
+        return catalog.store.topK(Comparator.comparingInt(Novel::getYearPublished), TOP_K);
+    }
+
+    @Benchmark
+    public List<Novel> getOldestBooks(final CatalogState catalog)
+    {
+        return catalog.store.getOldestBooks(TOP_K);
+    }
+
+    @Benchmark
+    public List<Novel> page(final CatalogState catalog)
+    {
+        return catalog.store.page(catalog.titleFor(next()), PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<Novel> fuzzySearch(final CatalogState catalog)
+    {
+        return catalog.store.fuzzySearch(FUZZY_TERMS[next() % FUZZY_TERMS.length], FUZZY_EDITS, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<String> titlesStartingWith(final CatalogState catalog)
+    {
+        return catalog.store.titlesStartingWith(PREFIXES[next() % PREFIXES.length], PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<Novel> findNovels(final CatalogState catalog)
+    {
+        return catalog.store.findNovels(queries.get(next() % queries.size()));
+    }
+
+    @Benchmark
+    public int countNovels(final CatalogState catalog)
+    {
+        return catalog.store.countNovels(queries.get(next() % queries.size()));
+    }
+
+    /*
+     * Returns the number of calls made so far, wrapping before it overflows.
+     */
+    private int next()
+    {
+        iteration = (iteration + 1) & Integer.MAX_VALUE;
+
+        return iteration;
+    }
+}
@@ -0,0 +1,131 @@
+package bookstore;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The {@code TitleLookupBenchmark} class compares the store's {@link TitleTable} with a
+ * {@link HashMap} from title to row, building each over a {@link NovelTable} of the shared
+ * {@link CatalogState} catalog and looking up its titles. Both are sized for the whole
+ * catalog up front, so neither build pays for resizing.
+ * <p>
+ * The GC profiler's bytes per operation on the build rows is the allocation of one
+ * build, not the memory the finished map keeps; {@link TitleTableFootprint} measures that.
+ *
+ * @version 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TitleLookupBenchmark
+{
+    private NovelTable           rows;
+    private Map<String, Integer> hashMap;
+    private TitleTable           titleTable;
+    private int                  iteration;
+
+    /**
+     * Stores the catalog in a table and builds both maps once for the lookup benchmarks.
+     *
+     * @param catalog the shared catalog
+     */
+    @Setup(Level.Trial)
+    public void setUp(final CatalogState catalog)
+    {
+        rows = new NovelTable(catalog.novels.size());
+
+        for(Novel novel : catalog.novels)
+        {
+            rows.add(novel);
+        }
+
+        hashMap    = buildHashMap(catalog.novels);
+        titleTable = buildTitleTable(rows);
+    }
+
+    @Benchmark
+    public Map<String, Integer> hashMapBuild(final CatalogState catalog)
+    {
+        return buildHashMap(catalog.novels);
+    }
+
+    @Benchmark
+    public TitleTable titleTableBuild()
+    {
+        return buildTitleTable(rows);
+    }
+
+    @Benchmark
+    public Integer hashMapGet(final CatalogState catalog)
+    {
+        return hashMap.get(catalog.titleFor(next()));
+    }
+
+    @Benchmark
+    public int titleTableGet(final CatalogState catalog)
+    {
+        return titleTable.get(catalog.titleFor(next()));
+    }
+
+    /*
+     * Maps every title to its row in a HashMap sized to hold them all without resizing.
+     * The rows are numbered in list order, as the table numbers them.
+     */
+    static Map<String, Integer> buildHashMap(final List<Novel> novels)
+    {
+        final Map<String, Integer> map;
+
+        map = HashMap.newHashMap(novels.size());
+
+        for(int row = 0; row < novels.size(); ++row)
+        {
+            map.put(novels.get(row).getTitle(), row);
+        }
+
+        return map;
+    }
+
+    /*
+     * Maps every title to its row in a TitleTable.
+     */
+    static TitleTable buildTitleTable(final NovelTable rows)
+    {
+        final TitleTable table;
+
+        table = new TitleTable(rows, rows.size());
+
+        for(int row = 0; row < rows.rowCount(); ++row)
+        {
+            table.put(row);
+        }
+
+        return table;
+    }
+
+    /*
+     * Returns the number of calls made so far, wrapping before it overflows.
+     */
+    private int next()
+    {
+        iteration = (iteration + 1) & Integer.MAX_VALUE;
+
+        return iteration;
+    }
+}
@@ -0,0 +1,68 @@
+package bookstore;
+
+import java.util.List;
+import java.util.Map;
+
+import org.openjdk.jol.info.GraphLayout;
+
+/**
+ * The {@code TitleTableFootprint} class measures how much heap each title map of
+ * {@link TitleLookupBenchmark} keeps once it is built, by walking every object the map
+ * reaches. The titles and the {@link NovelTable} both maps point into are left out, since
+ * the store holds them either way; what is left is the map's own arrays, nodes and boxes.
+ * <p>
+ * Run it from the shaded jar with the catalog size as its argument, for example
+ * {@code java -cp benchmarks/target/benchmarks.jar bookstore.TitleTableFootprint 1000000}.
+ *
+ * @version 1.0
+ */
+public final class TitleTableFootprint
+{
+    private static final int DEFAULT_SIZE = 1_000_000;
+
+    private TitleTableFootprint()
+    {
+    }
+
+    /**
+     * Builds both maps over a synthetic catalog and prints the bytes each one retains.
+     *
+     * @param args the catalog size, or nothing for {@value DEFAULT_SIZE}
+     */
+    public static void main(final String[] args)
+    {
+        final int                  size;
+        final List<Novel>          novels;
+        final NovelTable           rows;
+        final Map<String, Integer> hashMap;
+        final TitleTable           titleTable;
+        final GraphLayout          shared;
+
+        // the table's columns are a record, whose field offsets JOL can only find this way
+        System.setProperty("jol.magicFieldOffset", "true");
+
+        size   = args.length == 0 ? DEFAULT_SIZE : Integer.parseInt(args[0]);
+        novels = SyntheticCatalog.novels(size);
+        rows   = new NovelTable(size);
+
+        for(Novel novel : novels)
+        {
+            rows.add(novel);
+        }
+
+        hashMap    = TitleLookupBenchmark.buildHashMap(novels);
+        titleTable = TitleLookupBenchmark.buildTitleTable(rows);
+        shared     = GraphLayout.parseInstance(novels, rows);
+
+        print("HashMap", GraphLayout.parseInstance(hashMap).subtract(shared).totalSize(), size);
+        print("TitleTable", GraphLayout.parseInstance(titleTable).subtract(shared).totalSize(), size);
+    }
+
+    /*
+     * Prints the bytes a map retains in total and per title.
+     */
+    private static void print(final String name, final long bytes, final int size)
+    {
+        System.out.printf("%-10s %,15d bytes retained, %.1f bytes per title%n", name, bytes, (double) bytes / size);
+    }
+}
@@ -0,0 +1,103 @@
+package bookstore;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The {@code AuthorDictionary} class gives every distinct author in one {@link NovelTable}
+ * a small {@code int} id, which the table stores in place of the name and the store's
+ * author index buckets by instead of hashing the name again.
+ * <p>
+ * Each table keeps its own dictionary, so ids stay dense and the author index is sized
+ * by the authors that store stocks, not by every author the program has seen. Ids are
+ * never reused, since dead rows keep theirs; an author whose last novel is removed only
+ * leaves the dictionary when the table is compacted into a new one. The dictionary is
+ * not thread-safe; its store changes it under the write lock and reads it under the
+ * read lock.
+ *
+ * @version 1.0
+ */
+final class AuthorDictionary
+{
+    /**
+     * The id given to a missing author.
+     */
+    static final int NO_AUTHOR = -1;
+
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int GROWTH_FACTOR    = 2;
+
+    private final Map<String, Integer> ids;
+    private String[]                   names;
+    private int                        nextId;
+
+    /**
+     * Constructs an empty {@code AuthorDictionary}.
+     */
+    AuthorDictionary()
+    {
+        this.ids   = new HashMap<>();
+        this.names = new String[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Returns the id of an author, giving it the next id if it is new.
+     *
+     * @param name the author's name, or null
+     * @return the author's id, or {@link #NO_AUTHOR} for a null name
+     */
+    int intern(final String name)
+    {
+        final Integer known;
+
+        if(name == null)
+        {
+            return NO_AUTHOR;
+        }
+
+        known = ids.get(name);
+
+        if(known != null)
+        {
+            return known;
+        }
+
+        if(nextId == names.length)
+        {
+            // the old array stays behind any rows already reading it
+            names = Arrays.copyOf(names, names.length * GROWTH_FACTOR);
+        }
+
+        names[nextId] = name;
+        ids.put(name, nextId);
+
+        return nextId++;
+    }
+
+    /**
+     * Returns the id of an author without adding it.
+     *
+     * @param name the author's name
+     * @return the author's id, or {@link #NO_AUTHOR} if the author is not in the dictionary
+     */
+    int idOf(final String name)
+    {
+        final Integer id;
+
+        id = name == null ? null : ids.get(name);
+
+        return id == null ? NO_AUTHOR : id;
+    }
+
+    /**
+     * Returns the array holding each author's name at its id. Names are only ever written
+     * past the last id handed out, so the array can be read after later authors are added.
+     *
+     * @return the names, indexed by id
+     */
+    String[] names()
+    {
+        return names;
+    }
+}
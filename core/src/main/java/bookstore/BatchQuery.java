@@ -0,0 +1,144 @@
+package bookstore;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The {@code BatchQuery} class collects many questions for {@link BookStore#run(BatchQuery)}
+ * to answer together, under one lock and in at most one pass over the catalog.
+ * <p>
+ * Every question added returns a {@link Handle} that reads its answer from the
+ * {@link BatchResult}. A batch can be run any number of times.
+ *
+ * @version 1.0
+ */
+public final class BatchQuery
+{
+    private final List<Question> questions;
+
+    /**
+     * Constructs an empty {@code BatchQuery}.
+     */
+    public BatchQuery()
+    {
+        this.questions = new ArrayList<>();
+    }
+
+    /**
+     * Asks how many titles contain the given word, as {@link BookStore#howManyBooksContain(String)} does.
+     *
+     * @param word the text the titles must contain, ignoring case
+     * @return the handle of the answer
+     */
+    public Handle<Integer> countContaining(final String word)
+    {
+        if(word == null)
+        {
+            throw new IllegalArgumentException("Word cannot be null");
+        }
+
+        return add(new ContainsCount(word));
+    }
+
+    /**
+     * Asks what percentage of novels was published in a range, as
+     * {@link BookStore#whichPercentWrittenBetween(int, int)} does.
+     *
+     * @param lowerBound the first year of the range
+     * @param upperBound the last year of the range
+     * @return the handle of the answer
+     */
+    public Handle<Double> percentWrittenBetween(final int lowerBound,
+                                                final int upperBound)
+    {
+        return add(new PercentBetween(lowerBound, upperBound));
+    }
+
+    /**
+     * Asks whether any novel was published in a year, as
+     * {@link BookStore#isThereABookWrittenIn(int)} does.
+     *
+     * @param year the year of publication
+     * @return the handle of the answer
+     */
+    public Handle<Boolean> writtenIn(final int year)
+    {
+        return add(new WrittenIn(year));
+    }
+
+    /**
+     * Asks for the novels whose title has a length, as
+     * {@link BookStore#getBooksThisLength(int)} does.
+     *
+     * @param length the title length
+     * @return the handle of the answer
+     */
+    public Handle<List<Novel>> withLength(final int length)
+    {
+        return add(new WithLength(length));
+    }
+
+    /*
+     * Returns the questions in the order they were added.
+     */
+    List<Question> questions()
+    {
+        return Collections.unmodifiableList(questions);
+    }
+
+    /*
+     * Appends a question and returns the handle of its answer.
+     */
+    private <R> Handle<R> add(final Question question)
+    {
+        questions.add(question);
+        return new Handle<>(this, questions.size() - 1);
+    }
+
+    /**
+     * Identifies the answer to one question of a batch.
+     *
+     * @param batch    the batch that asked the question
+     * @param position the position of the question in the batch
+     * @param <R>      the type of the answer
+     */
+    public record Handle<R>(BatchQuery batch, int position)
+    {
+    }
+
+    /*
+     * One question of a batch.
+     */
+    sealed interface Question permits ContainsCount, PercentBetween, WrittenIn, WithLength
+    {
+    }
+
+    /*
+     * How many titles contain a word.
+     */
+    record ContainsCount(String word) implements Question
+    {
+    }
+
+    /*
+     * What percentage of novels was published in a range of years.
+     */
+    record PercentBetween(int lowerBound, int upperBound) implements Question
+    {
+    }
+
+    /*
+     * Whether any novel was published in a year.
+     */
+    record WrittenIn(int year) implements Question
+    {
+    }
+
+    /*
+     * Which novels have a title of a length.
+     */
+    record WithLength(int length) implements Question
+    {
+    }
+}
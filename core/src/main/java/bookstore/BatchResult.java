@@ -0,0 +1,53 @@
+package bookstore;
+
+import java.util.List;
+
+/**
+ * The {@code BatchResult} class holds the answers to a {@link BatchQuery}. Every answer
+ * was computed under the same read lock, so they all describe the same state of the store.
+ *
+ * @version 1.0
+ */
+public final class BatchResult
+{
+    private final BatchQuery   batch;
+    private final List<Object> answers;
+
+    /*
+     * Wraps the answers of a batch, in question order.
+     */
+    BatchResult(final BatchQuery   batch,
+                final List<Object> answers)
+    {
+        this.batch   = batch;
+        this.answers = answers;
+    }
+
+    /**
+     * Returns the answer to one question.
+     *
+     * @param handle the handle returned when the question was asked
+     * @param <R>    the type of the answer
+     * @return the answer
+     */
+    @SuppressWarnings("unchecked")
+    public <R> R get(final BatchQuery.Handle<R> handle)
+    {
+        if(handle == null || handle.batch() != batch || handle.position() >= answers.size())
+        {
+            throw new IllegalArgumentException("Handle does not belong to this batch");
+        }
+
+        return (R) answers.get(handle.position());
+    }
+
+    /**
+     * Returns the number of answers.
+     *
+     * @return the number of questions the batch asked when it was run
+     */
+    public int size()
+    {
+        return answers.size();
+    }
+}
@@ -0,0 +1,2120 @@
+package bookstore;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * The {@code BookStore} class represents a store containing a collection of novels.
+ * It provides methods to search, sort, and print information about the novels.
+ * <p>
+ * The novels are kept column by column in a {@link NovelTable}: years in an {@code int[]},
+ * authors as dictionary ids, and every title in one shared character buffer. The title
+ * map and every index hold row numbers, and a {@code Novel} is only made when a caller
+ * reads one. Removed rows are marked dead and the table is compacted once they outnumber
+ * the live ones.
+ * <p>
+ * A {@code BookStore} is safe to share between threads. Queries run concurrently under a
+ * shared read lock, while {@link #addNovel(Novel)} and {@link #removeNovel(String)} take
+ * the write lock, so the table, title map and indexes always change together. Lists
+ * returned by queries are snapshots that later changes do not affect.
+ *
+ * @author Bryson Lindy
+ * @author Richard Ho
+ * @author Phyo Thu Kha
+ *
+ * @version 1.0
+ */
+public class BookStore<T extends Literature>
+{
+    private static final int ROUND_LOWER_BOUND    = 10;
+    private static final int ROUND_UPPER_BOUND    = 9;
+    private static final int PERCENTAGE_CONVERTOR = 100;
+    private static final int OUTPUT_BUFFER_SIZE   = 1 << 16;
+
+    /*
+     * The year index is preferred over the title index once a year range keeps at most
+     * one novel in this many.
+     */
+    private static final int YEAR_INDEX_SELECTIVITY = 4;
+
+    private static final String LINE_SEPARATOR = System.lineSeparator();
+
+    private static final Comparator<String> AUTHOR_ORDER = Comparator.nullsLast(Comparator.naturalOrder());
+
+    private final String             storeName;
+    private NovelTable               table;
+    private TitleTable               novelsMap;
+    private final List<T>            items;
+    private TitleTrigramIndex        titleIndex;
+    private YearIndex                yearIndex;
+    private NovelBucketIndex         lengthIndex;
+    private NovelBucketIndex         authorIndex;
+    private final CachedOrdering     titleOrder;
+    private final CachedOrdering     alphaOrder;
+    private final CachedOrdering     yearOrder;
+    private final CachedOrdering     authorOrder;
+    private final ReadWriteLock      lock;
+    private volatile ChunkedExecutor executor;
+    private volatile QueryMetrics    metrics;
+    private volatile long            version;
+
+    /**
+     * Constructs a {@code BookStore} with the given store name.
+     * Initializes the list of novels using {@code Novel.createNovelList()}.
+     *
+     * @param storeName the name of the bookstore
+     */
+    public BookStore(final String storeName)
+    {
+        this(storeName, Novel.createNovelList());
+    }
+
+    /**
+     * Constructs a {@code BookStore} with the given store name, stocked with the given novels.
+     * The novels' titles, authors and years are copied into the store's table and indexed
+     * once. Titles identify novels, so, as with {@link #addNovel(Novel)}, no two novels may
+     * share a title.
+     *
+     * @param storeName the name of the bookstore
+     * @param novels    the novels to stock
+     * @throws IllegalArgumentException if a novel or its title is null, or two novels share a title
+     */
+    public BookStore(final String      storeName,
+                     final List<Novel> novels)
+    {
+        this(storeName, tableOf(novels));
+    }
+
+    /*
+     * Constructs a BookStore over a table already holding its novels, mapping their titles
+     * and building every index once.
+     */
+    private BookStore(final String     storeName,
+                      final NovelTable table)
+    {
+        validateName(storeName);
+
+        this.storeName = storeName;
+        this.table     = table;
+
+        mapTitles();
+
+        items          = new ArrayList<>();
+
+        buildIndexes();
+        this.executor    = ChunkedExecutor.SEQUENTIAL;
+        this.metrics     = QueryMetrics.NOOP;
+
+        this.titleOrder  = new CachedOrdering(NovelTable::compareTitles);
+        this.alphaOrder  = new CachedOrdering(NovelTable::compareFoldedTitles);
+        this.yearOrder   = new CachedOrdering((rows, first, second) ->
+                Integer.compare(rows.yearAt(first), rows.yearAt(second)));
+        this.authorOrder = new CachedOrdering((rows, first, second) ->
+                AUTHOR_ORDER.compare(rows.authorAt(first), rows.authorAt(second)));
+        this.lock        = new ReentrantReadWriteLock();
+    }
+
+    /**
+     * Opens a {@code BookStore} stocked from a binary catalog file written by
+     * {@link NovelCatalogFile#write(Path, List)}. The file is memory mapped and its columns
+     * are copied row by row into the store's own table, with each title and each distinct
+     * author decoded once and no novel made per row. Only the file reader is lazy: the
+     * store keeps every title in its table, so it does not read rows from the mapping
+     * afterwards and the file can change or go away once this returns.
+     *
+     * @param storeName   the name of the bookstore
+     * @param catalogFile the catalog file to read
+     * @param <T>         the type of other literature the store carries
+     * @return a bookstore holding every novel in the catalog
+     * @throws IOException if the catalog cannot be read or is not valid
+     * @throws IllegalArgumentException if two novels share a title
+     */
+    public static <T extends Literature> BookStore<T> fromCatalogFile(final String storeName,
+                                                                      final Path   catalogFile) throws IOException
+    {
+        return new BookStore<>(storeName, NovelCatalogFile.open(catalogFile).toTable());
+    }
+
+    /**
+     * Creates a {@code BookStore} stocked from a delimited text file of title, author and
+     * year rows, such as a CSV or TSV dump. The file is parsed in parallel chunks and the
+     * store's title map, key list and indexes are built once from the whole list.
+     *
+     * @param storeName the name of the bookstore
+     * @param file      the delimited file to read
+     * @param delimiter the character between fields
+     * @param <T>       the type of other literature the store carries
+     * @return a bookstore holding every novel in the file
+     * @throws IOException if the file cannot be read or a row is malformed
+     * @throws IllegalArgumentException if two novels share a title
+     * @see NovelDelimitedFile
+     */
+    public static <T extends Literature> BookStore<T> fromDelimitedFile(final String storeName,
+                                                                        final Path   file,
+                                                                        final char   delimiter) throws IOException
+    {
+        return new BookStore<>(storeName, NovelDelimitedFile.read(file, delimiter));
+    }
+
+    /**
+     * Returns the name of the bookstore.
+     *
+     * @return the name of the bookstore
+     */
+    public String getStoreName()
+    {
+        return storeName;
+    }
+
+    /**
+     * Runs the aggregate queries in parallel on the given pool. Queries over at most
+     * {@code threshold} novels stay sequential, and larger ones are split into chunks of
+     * at most {@code threshold} novels whose partial results are merged in catalog order,
+     * so every query returns the same answer as in sequential mode.
+     *
+     * @param pool      the pool to run query chunks on
+     * @param threshold the largest number of novels scanned without splitting
+     */
+    public void enableParallelQueries(final ForkJoinPool pool,
+                                      final int          threshold)
+    {
+        if(pool == null)
+        {
+            throw new IllegalArgumentException("Pool cannot be null");
+        }
+
+        this.executor = new ChunkedExecutor(pool, threshold);
+    }
+
+    /**
+     * Runs every query sequentially in the calling thread. This is the default.
+     */
+    public void disableParallelQueries()
+    {
+        this.executor = ChunkedExecutor.SEQUENTIAL;
+    }
+
+    /**
+     * Returns the catalog version, which changes every time a novel is added or removed.
+     * Two reads that see the same version saw the same novels.
+     *
+     * @return the current catalog version
+     */
+    public long getVersion()
+    {
+        return version;
+    }
+
+    /**
+     * Records latency, elements scanned and result sizes of the store's queries in the
+     * given metrics. A title search counts every title the trigram index checked as
+     * scanned, which is the whole catalog for a query shorter than a trigram. Other index
+     * lookups only read the novels they return. Whatever a query did not examine counts
+     * as skipped.
+     *
+     * @param metrics where to record each query
+     */
+    public void enableMetrics(final QueryMetrics metrics)
+    {
+        if(metrics == null)
+        {
+            throw new IllegalArgumentException("Metrics cannot be null");
+        }
+
+        this.metrics = metrics;
+    }
+
+    /**
+     * Stops recording queries. This is the default.
+     */
+    public void disableMetrics()
+    {
+        this.metrics = QueryMetrics.NOOP;
+    }
+
+    /**
+     * Returns the statistics recorded so far by the current metrics.
+     *
+     * @return an unmodifiable map from operation to its statistics, empty if metrics are disabled
+     */
+    public Map<QueryOperation, OperationStats> getMetricsSnapshot()
+    {
+        return metrics.snapshot();
+    }
+
+    /*
+    Checks to make sure the store name is not null or empty.
+     */
+    private static void validateName(final String storeName)
+    {
+        if(storeName == null || storeName.isEmpty())
+        {
+            throw new IllegalArgumentException("Store name cannot be null or empty");
+        }
+    }
+
+    /*
+    Checks to make sure the list of novels is not null.
+     */
+    private static void validateNovels(final List<Novel> novels)
+    {
+        if(novels == null)
+        {
+            throw new IllegalArgumentException("Novels cannot be null");
+        }
+    }
+
+    /*
+     * Helper method to add each novel as a row of a new table, in list order.
+     */
+    private static NovelTable tableOf(final List<Novel> stock)
+    {
+        final NovelTable stocked;
+
+        validateNovels(stock);
+
+        stocked = new NovelTable(stock.size());
+
+        for(Novel novel : stock)
+        {
+            validateNovel(novel);
+            stocked.add(novel);
+        }
+
+        return stocked;
+    }
+
+    /**
+     * Adds a novel to the bookstore as a new row of the table, keeping the title map and
+     * every index in sync.
+     *
+     * @param novel the novel to add
+     */
+    public void addNovel(final Novel novel)
+    {
+        validateNovel(novel);
+
+        lock.writeLock().lock();
+
+        try
+        {
+            final String title;
+            final int    row;
+
+            title = novel.getTitle();
+
+            if(novelsMap.containsKey(title))
+            {
+                throw new IllegalArgumentException("Novel already stocked: " + title);
+            }
+
+            row = table.add(novel);
+
+            novelsMap.put(row);
+            titleIndex.add(row);
+            yearIndex.add(row);
+            lengthIndex.add(row);
+            authorIndex.add(row);
+            version++;
+        }
+        finally
+        {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes the novel with the given title from the bookstore, keeping the title map and
+     * every index in sync. The novel's row is marked dead, and the table is compacted once
+     * dead rows outnumber live ones, so removals cost amortized constant time in the table.
+     *
+     * @param title the exact title of the novel to remove
+     * @return true if a novel was removed
+     */
+    public boolean removeNovel(final String title)
+    {
+        lock.writeLock().lock();
+
+        try
+        {
+            final int row;
+
+            row = novelsMap.remove(title);
+
+            if(row == NovelTable.NO_ROW)
+            {
+                return false;
+            }
+
+            // the title index skips dead rows until the table is compacted
+            table.remove(row);
+            yearIndex.remove(row);
+            lengthIndex.remove(row);
+            authorIndex.remove(row);
+
+            if(table.deadCount() > table.size())
+            {
+                table = table.compacted();
+                mapTitles();
+                buildIndexes();
+            }
+
+            version++;
+
+            return true;
+        }
+        finally
+        {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes every novel matching the predicate in one linear pass, copying the rows to
+     * keep into a new table, then rebuilds the title map and indexes once. This avoids the
+     * quadratic cost of removing many novels one at a time.
+     *
+     * @param filter returns true for the novels to remove
+     * @return the number of novels removed
+     */
+    public int removeIf(final Predicate<? super Novel> filter)
+    {
+        if(filter == null)
+        {
+            throw new IllegalArgumentException("Filter cannot be null");
+        }
+
+        lock.writeLock().lock();
+
+        try
+        {
+            final NovelTable kept;
+            int              removed;
+
+            kept    = new NovelTable(table.size());
+            removed = 0;
+
+            for(int row = 0; row < table.rowCount(); ++row)
+            {
+                if(table.isLive(row))
+                {
+                    final Novel novel;
+
+                    novel = table.novelAt(row);
+
+                    if(filter.test(novel))
+                    {
+                        removed++;
+                    }
+                    else
+                    {
+                        kept.add(novel);
+                    }
+                }
+            }
+
+            if(removed > 0)
+            {
+                table = kept;
+                mapTitles();
+                buildIndexes();
+                version++;
+            }
+
+            return removed;
+        }
+        finally
+        {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Keeps only the novels matching the predicate, as {@link #removeIf(Predicate)} does for
+     * the ones that do not.
+     *
+     * @param filter returns true for the novels to keep
+     * @return the number of novels removed
+     */
+    public int retainIf(final Predicate<? super Novel> filter)
+    {
+        if(filter == null)
+        {
+            throw new IllegalArgumentException("Filter cannot be null");
+        }
+
+        return removeIf(novel -> !filter.test(novel));
+    }
+
+    /*
+     * Maps the title of every live row of a new table. Callers hold the write lock, or are
+     * the constructor. A repeated title is rejected, since removeNovel and getNovel could
+     * only ever reach one of the novels sharing it.
+     */
+    private void mapTitles()
+    {
+        novelsMap = new TitleTable(table, table.size());
+
+        for(int row : table.liveRows())
+        {
+            if(novelsMap.put(row) != NovelTable.NO_ROW)
+            {
+                throw new IllegalArgumentException("Novel already stocked: " + table.titleAt(row));
+            }
+        }
+    }
+
+    /*
+     * Builds every index from the current table. Callers hold the write lock, or are the constructor.
+     */
+    private void buildIndexes()
+    {
+        final NovelTable current;
+
+        current     = table;
+        titleIndex  = new TitleTrigramIndex(current);
+        yearIndex   = new YearIndex(current);
+        lengthIndex = new NovelBucketIndex(current, current::titleLengthAt);
+        authorIndex = new NovelBucketIndex(current, current::authorIdAt);
+    }
+
+    /*
+    Checks to make sure a novel and its title are not null.
+     */
+    private static void validateNovel(final Novel novel)
+    {
+        if(novel == null || novel.getTitle() == null)
+        {
+            throw new IllegalArgumentException("Novel and its title cannot be null");
+        }
+    }
+
+    /**
+     * Returns the novel with the given title.
+     *
+     * @param title the exact title to look up
+     * @return the novel with that title, or null if none is stocked
+     */
+    public Novel getNovel(final String title)
+    {
+        final QueryMetrics recorder;
+        final long         start;
+
+        recorder = metrics;
+        start    = recorder.start();
+
+        lock.readLock().lock();
+
+        try
+        {
+            final int   row;
+            final Novel novel;
+
+            row   = novelsMap.get(title);
+            novel = row == NovelTable.NO_ROW ? null : table.novelAt(row);
+            recordLookup(recorder, QueryOperation.GET_NOVEL, start, novel == null ? 0 : 1);
+
+            return novel;
+        }
+        finally
+        {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns every stocked title, sorted by {@link String#compareTo(String)}. The sorted
+     * rows are cached and only sorted again after the catalog changes.
+     *
+     * @return an unmodifiable snapshot of the sorted title list
+     */
+    public List<String> getTitles()
+    {
+        lock.readLock().lock();
+
+        try
+        {
+            final int[] sorted;
+
+            sorted = titleOrder.sorted(table, version);
+
+            return table.titles(sorted, sorted.length);
+        }
+        finally
+        {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns every stocked novel in catalog order.
+     *
+     * @return an unmodifiable snapshot of the novel list
+     */
+    public List<Novel> getNovels()
+    {
+        lock.readLock().lock();
+
+        try
+        {
+            return table.novels();
+        }
+        finally
+        {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Iterates through the BookStore List and prints all the titles in UPPERCASE.
+     */
+    public void printAllTitles()
+    {
+        printToConsole(this::printAllTitles);
+    }
+
+    /**
+     * Iterates through the BookStore List and writes all the titles in UPPERCASE, one per line.
+     *
+     * @param out where to write the titles
+     * @throws IOException if writing to {@code out} fails
+     */
+    public void printAllTitles(final Appendable out) throws IOException
+    {
+        final List<String> titles;
+
+        lock.readLock().lock();
+
+        try
+        {
+            titles = table.titles();
+        }
+        finally
+        {
+            lock.readLock().unlock();
+        }
+
+        for(String title : titles)
+        {
+            final String titleUpperCase;
+
+            titleUpperCase = title.toUpperCase();
+
+            out.append(titleUpperCase).append(LINE_SEPARATOR);
+        }
+    }
+
+    /**
+     * Prints all titles that contain the parameter passed as a String, ignoring case.
+     * Candidates are looked up in the title trigram index rather than scanning every title.
+     *
+     * @param title what we check to see if each title in the book store list contains
+     */
+    public void printBookTitle(final String title)
+    {
+        printToConsole(out -> printBookTitle(title, out));
+    }
+
+    /**
+     * Writes all titles that contain the parameter passed as a String, ignoring case, one per line.
+     *
+     * @param title what we check to see if each title in the book store list contains
+     * @param out   where to write the titles
+     * @throws IOException if writing to {@code out} fails
+     */
+    public void printBookTitle(final String     title,
+                               final Appendable out) throws IOException
+    {
+        for(Novel novel : searchTitles(title))
+        {
+            out.append(novel.getTitle()).append(LINE_SEPARATOR);
+        }
+    }
+
+    /*
+     * Looks up the novels whose title contains the given text in the title index.
+     */
+    private List<Novel> searchTitles(final String title)
+    {
+        final QueryMetrics recorder;
+        final long         start;
+
+        recorder = metrics;
+        start    = recorder.start();
+
+        lock.readLock().lock();
+
+        try
+        {
+            final TitleTrigramIndex.Examined<int[]> found;
+
+            found = titleIndex.search(title, executor);
+            recordExamined(recorder, QueryOperation.SEARCH_TITLES, start, found.examined(), found.value().length);
+
+            return table.novels(found.value(), found.value().length);
+        }
+        finally
+        {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns a stream of the novels whose title contains the parameter, ignoring case.
+     * The matches are collected when this method is called, so later changes to the
+     * store do not affect the stream.
+     *
+     * @param title what we check to see if each title in the book store list contains
+     * @return the matching novels, in catalog order
+     */
+    public Stream<Novel> streamBookTitle(final String title)
+    {
+        return searchTitles(title).stream();
+    }
+
+    /**
+     * Prints all the titles in alphabetical order, read from the cached alphabetical view.
+     */
+    public void printTitlesInAlphaOrder()
+    {
+        printToConsole(this::printTitlesInAlphaOrder);
+    }
+
+    /**
+     * Writes all the titles in alphabetical order, one per line.
+     *
+     * @param out where to write the titles
+     * @throws IOException if writing to {@code out} fails
+     */
+    public void printTitlesInAlphaOrder(final Appendable out) throws IOException
+    {
+        final List<String> titles;
+
+        lock.readLock().lock();
+
+        try
+        {
+            final int[] sorted;
+
+            sorted = alphaOrder.sorted(table, version);
+            titles = table.titles(sorted, sorted.length);
+        }
+        finally
+        {
+            lock.readLock().unlock();
+        }
+
+        for(String title : titles)
+        {
+            out.append(title).append(LINE_SEPARATOR);
+        }
+    }
+
+    /**
+     * Returns the novels sorted alphabetically by title, ignoring case. The sorted view is
+     * cached and only rebuilt on the first read after the catalog changes.
+     *
+     * @return an unmodifiable list of the novels in alphabetical order
+     */
+    public List<Novel> getNovelsInAlphaOrder()
+    {
+        lock.readLock().lock();
+
+        try
+        {
+            return sortedNovels(alphaOrder);
+        }
+        finally
+        {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the novels sorted by year of publication; novels from the same year keep
+     * catalog order. The sorted view is cached and only rebuilt after the catalog changes.
+     *
+     * @return an unmodifiable list of the novels in order of publication
+     */
+    public List<Novel> getNovelsByYear()
+    {
+        lock.readLock().lock();
+
+        try
+        {
+            return sortedNovels(yearOrder);
+        }
+        finally
+        {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the novels sorted by author; novels by the same author keep catalog order.
+     * The sorted view is cached and only rebuilt after the catalog changes.
+     *
+     * @return an unmodifiable list of the novels in author order
+     */
+    public List<Novel> getNovelsByAuthor()
+    {
+        lock.readLock().lock();
+
+        try
+        {
+            return sortedNovels(authorOrder);
+        }
+        finally
+        {
+            lock.readLock().unlock();
+        }
+    }
+
+    /*
+     * Returns the live rows in the given ordering as novels. Callers hold the read lock.
+     */
+    private List<Novel> sortedNovels(final CachedOrdering ordering)
+    {
+        final int[] sorted;
+
+        sorted = ordering.sorted(table, version);
+
+        return table.novels(sorted, sorted.length);
+    }
+
+    /**
+     * Prints all the novels published in a decade determined by the passed int parameter.
+     * Takes a given decade parameter and rounds it down to the nearest {@value ROUND_LOWER_BOUND} to determine
+     * the lower bound of the decade. Then adds {@value ROUND_UPPER_BOUND}. The novels are read from the
+     * year index, so they are printed in order of publication.
+     *
+     * @param decade a year that falls in the desired decade
+     */
+    public void printGroupByDecade(final int decade)
+    {
+        printToConsole(out -> printGroupByDecade(decade, out));
+    }
+
+    /**
+     * Writes the titles of all the novels published in the decade containing the given year,
+     * in order of publication, one per line.
+     *
+     * @param decade a year that falls in the desired decade
+     * @param out    where to write the titles
+     * @throws IOException if writing to {@code out} fails
+     */
+    public void printGroupByDecade(final int        decade,
+                                   final Appendable out) throws IOException
+    {
+        for(Novel novel : getGroupByDecade(decade))
+        {
+            out.append(novel.getTitle()).append(LINE_SEPARATOR);
+        }
+    }
+
+    /**
+     * Returns a stream of the novels published in the decade containing the given year,
+     * in order of publication.
+     *
+     * @param decade a year that falls in the desired decade
+     * @return the novels published in that decade
+     */
+    public Stream<Novel> streamGroupByDecade(final int decade)
+    {
+        return getGroupByDecade(decade).stream();
+    }
+
+    /*
+     * Reads the novels of the decade containing the given year from the year index.
+     */
+    private List<Novel> getGroupByDecade(final int decade)
+    {
+        final QueryMetrics recorder;
+        final long         start;
+
+        recorder = metrics;
+        start    = recorder.start();
+
+        lock.readLock().lock();
+
+        try
+        {
+            int         startOfDecade;
+            int         endOfDecade;
+            final int[] found;
+
+            startOfDecade = (decade/ ROUND_LOWER_BOUND) * ROUND_LOWER_BOUND;
+            endOfDecade   = startOfDecade + ROUND_UPPER_BOUND;
+
+            found = yearIndex.between(startOfDecade, endOfDecade);
+            recordLookup(recorder, QueryOperation.GROUP_BY_DECADE, start, found.length);
+
+            return table.novels(found, found.length);
+        }
+        finally
+        {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Finds the first novel with the longest title and prints the title.
+     */
+    public void printLongest()
+    {
+        printToConsole(this::printLongest);
+    }
+
+    /**
+     * Finds the first novel with the longest title and writes the title on one line.
+     *
+     * @param out where to write the title
+     * @throws IOException if writing to {@code out} fails
+     */
+    public void printLongest(final Appendable out) throws IOException
+    {
+        out.append(getLongestBook().getTitle()).append(LINE_SEPARATOR);
+    }
+
+    /**
+     * Returns the first novel with the longest title, tracked by the title length index.
+     *
+     * @return the first novel in catalog order among those with the longest title
+     * @throws NoSuchElementException if the store has no novels
+     */
+    Novel getLongestBook()
+    {
+        lock.readLock().lock();
+
+        try
+        {
+            final int row;
+
+            row = lengthIndex.firstOfLargestKey();
+
+            if(row == NovelTable.NO_ROW)
+            {
+                throw new NoSuchElementException("No novels stocked");
+            }
+
+            return table.novelAt(row);
+        }
+        finally
+        {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Runs a print method against a buffered writer over standard output and flushes once,
+     * instead of taking the System.out lock and flushing for every line.
+     *
+     * @param printer the print method to run
+     * @throws UncheckedIOException if writing to standard output fails
+     */
+    static void printToConsole(final Printer printer)
+    {
+        final Writer out;
+
+        out = new BufferedWriter(new OutputStreamWriter(System.out, System.out.charset()), OUTPUT_BUFFER_SIZE);
+
+        try
+        {
+            printer.printTo(out);
+            out.flush();
+        }
+        catch(final IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * A print method writing to an Appendable.
+     */
+    @FunctionalInterface
+    interface Printer
+    {
+        void printTo(Appendable out) throws IOException;
+    }
+
+    /**
+     * Checks the year index to see if any book was published in the year passed
+     * as a parameter. Returns true if one is found, false if not.
+     *
+     * @param year to check if
+     * @return boolean
+     */
+    public boolean isThereABookWrittenIn(final int year)
+    {
+        final QueryMetrics recorder;
+        final long         start;
+
+        recorder = metrics;
+        start    = recorder.start();
+
+        lock.readLock().lock();
+
+        try
+        {
+            final boolean found;
+
+            found = yearIndex.contains(year);
+            recordLookup(recorder, QueryOperation.YEAR_LOOKUP, start, found ? 1 : 0);
+
+            return found;
+        }
+        finally
+        {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Counts the titles in the book list that contain the word passed as a parameter,
+     * ignoring case. Candidates are looked up in the title trigram index.
+     *
+     * @param word String to check if contained in each book title
+     * @return number
+     */
+    public int howManyBooksContain(final String word)
+    {
+        final QueryMetrics recorder;
+        final long         start;
+
+        recorder = metrics;
+        start    = recorder.start();
+
+        lock.readLock().lock();
+
+        try
+        {
+            final TitleTrigramIndex.Examined<Integer> counter;
+
+            counter = titleIndex.count(word, executor);
+            recordExamined(recorder, QueryOperation.COUNT_CONTAINING, start, counter.examined(), counter.value());
+
+            return counter.value();
+        }
+        finally
+        {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns a double value of the ratio of novels between the ranges passed as
+     * parameters and the total number of novels. The range is counted with two binary
+     * searches over the year index.
+     *
+     * @param lowerBound int that indicates the lower limit of years
+     * @param upperBound int that indicates the upper limit of years
+     * @return double representing the percentage of novels between the lower and upper bounds
+     */
+    public double whichPercentWrittenBetween(final int lowerBound,
+                                             final int upperBound)
+    {
+        final QueryMetrics recorder;
+        final long         start;
+
+        recorder = metrics;
+        start    = recorder.start();
+
+        lock.readLock().lock();
+
+        try
+        {
+            final int counter;
+
+            counter = yearIndex.countBetween(lowerBound, upperBound);
+            recorder.record(QueryOperation.PERCENT_BETWEEN, start, 0, table.size(), counter);
+
+            return ((double)counter / (double) table.size()) * PERCENTAGE_CONVERTOR;
+        }
+        finally
+        {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the oldest book from the book list. If several share the oldest year,
+     * the first one in the list is returned. The year index keeps it up to date on
+     * every change, so no scan is needed.
+     * @return Book object that is oldest
+     * @throws NoSuchElementException if the store has no novels
+     */
+    public Novel getOldestBook()
+    {
+        final QueryMetrics recorder;
+        final long         start;
+
+        recorder = metrics;
+        start    = recorder.start();
+
+        lock.readLock().lock();
+
+        try
+        {
+            final Novel oldest;
+
+            oldest = table.novelAt(yearIndex.oldest());
+            recordLookup(recorder, QueryOperation.OLDEST, start, 1);
+
+            return oldest;
+        }
+        finally
+        {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the earliest year any stocked novel was published.
+     *
+     * @return the earliest year of publication
+     * @throws NoSuchElementException if the store has no novels
+     */
+    public int getEarliestYear()
+    {
+        lock.readLock().lock();
+
+        try
+        {
+            return yearIndex.earliestYear();
+        }
+        finally
+        {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the latest year any stocked novel was published.
+     *
+     * @return the latest year of publication
+     * @throws NoSuchElementException if the store has no novels
+     */
+    public int getLatestYear()
+    {
+        lock.readLock().lock();
+
+        try
+        {
+            return yearIndex.latestYear();
+        }
+        finally
+        {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Counts the novels published in the given year with two binary searches over the year index.
+     *
+     * @param year the year of publication
+     * @return the number of novels published that year
+     */
+    public int countBooksWrittenIn(final int year)
+    {
+        lock.readLock().lock();
+
+        try
+        {
+            return yearIndex.countBetween(year, year);
+        }
+        finally
+        {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Counts the novels published between the given years, inclusive, with two binary
+     * searches over the year index.
+     *
+     * @param lowerBound the first year of the range
+     * @param upperBound the last year of the range
+     * @return the number of novels published in the range
+     */
+    public int countBooksWrittenBetween(final int lowerBound,
+                                        final int upperBound)
+    {
+        lock.readLock().lock();
+
+        try
+        {
+            return yearIndex.countBetween(lowerBound, upperBound);
+        }
+        finally
+        {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the number of novels in the store.
+     *
+     * @return the number of novels stocked
+     */
+    public int getNovelCount()
+    {
+        lock.readLock().lock();
+
+        try
+        {
+            return table.size();
+        }
+        finally
+        {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns a list of novels with titles of the specified length, read from the
+     * title length index in constant time.
+     *
+     * @param length the desired title length
+     * @return an unmodifiable list of novels with titles of the given length, in catalog order
+     */
+    public List<Novel> getBooksThisLength(final int length)
+    {
+        final QueryMetrics recorder;
+        final long         start;
+
+        recorder = metrics;
+        start    = recorder.start();
+
+        lock.readLock().lock();
+
+        try
+        {
+            final List<Novel> found;
+
+            found = lengthIndex.bucket(length);
+            recordLookup(recorder, QueryOperation.BY_LENGTH, start, found.size());
+
+            return found;
+        }
+        finally
+        {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the novels by the given author from the author index, without scanning.
+     *
+     * @param author the exact author name
+     * @return an unmodifiable list of the author's novels, in catalog order
+     */
+    public List<Novel> getBooksBy(final String author)
+    {
+        final QueryMetrics recorder;
+        final long         start;
+
+        recorder = metrics;
+        start    = recorder.start();
+
+        lock.readLock().lock();
+
+        try
+        {
+            final List<Novel> found;
+
+            found = authorIndex.bucket(table.authorIdOf(author));
+            recordLookup(recorder, QueryOperation.BY_AUTHOR, start, found.size());
+
+            return found;
+        }
+        finally
+        {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Counts the novels by the given author in constant time.
+     *
+     * @param author the exact author name
+     * @return the number of novels by that author
+     */
+    public int countBooksBy(final String author)
+    {
+        lock.readLock().lock();
+
+        try
+        {
+            return authorIndex.count(table.authorIdOf(author));
+        }
+        finally
+        {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Answers every question of a batch under one read lock. Year and length questions
+     * are read from their indexes, and title words with a trigram from the title index.
+     * Shorter words, which the index cannot narrow, are all counted together in a single
+     * pass over the catalog, split into chunks when parallel queries are enabled.
+     *
+     * @param batch the questions to answer
+     * @return the answers, all describing the same state of the store
+     */
+    public BatchResult run(final BatchQuery batch)
+    {
+        final QueryMetrics              recorder;
+        final long                      start;
+        final List<BatchQuery.Question> questions;
+        final List<String>              scannedWords;
+        final List<Object>              answers;
+
+        recorder     = metrics;
+        start        = recorder.start();
+        questions    = batch.questions();
+        scannedWords = new ArrayList<>();
+        answers      = new ArrayList<>(questions.size());
+
+        for(BatchQuery.Question question : questions)
+        {
+            if(question instanceof BatchQuery.ContainsCount(String word) &&
+               !TitleTrigramIndex.canNarrow(word) &&
+               !scannedWords.contains(Novel.foldTitle(word)))
+            {
+                scannedWords.add(Novel.foldTitle(word));
+            }
+        }
+
+        lock.readLock().lock();
+
+        try
+        {
+            final int[] scannedCounts;
+            int         examined;
+
+            scannedCounts = countContainingAll(scannedWords);
+            examined      = scannedWords.isEmpty() ? 0 : table.size();
+
+            for(BatchQuery.Question question : questions)
+            {
+                answers.add(switch(question)
+                {
+                    case BatchQuery.ContainsCount(String word) when TitleTrigramIndex.canNarrow(word) ->
+                    {
+                        final TitleTrigramIndex.Examined<Integer> counted;
+
+                        counted   = titleIndex.count(word, executor);
+                        examined += counted.examined();
+
+                        yield counted.value();
+                    }
+                    case BatchQuery.ContainsCount(String word) ->
+                        scannedCounts[scannedWords.indexOf(Novel.foldTitle(word))];
+                    case BatchQuery.PercentBetween(int lowerBound, int upperBound) ->
+                        ((double) yearIndex.countBetween(lowerBound, upperBound) / (double) table.size()) * PERCENTAGE_CONVERTOR;
+                    case BatchQuery.WrittenIn(int year) ->
+                        yearIndex.contains(year);
+                    case BatchQuery.WithLength(int length) ->
+                        lengthIndex.bucket(length);
+                });
+            }
+
+            recorder.record(QueryOperation.BATCH,
+                            start,
+                            examined,
+                            scannedWords.isEmpty() ? Math.max(0, table.size() - examined) : 0,
+                            answers.size());
+        }
+        finally
+        {
+            lock.readLock().unlock();
+        }
+
+        return new BatchResult(batch, Collections.unmodifiableList(answers));
+    }
+
+    /*
+     * Counts the titles containing each folded word in one pass over the table's folded titles.
+     */
+    private int[] countContainingAll(final List<String> foldedWords)
+    {
+        final String[] words;
+
+        if(foldedWords.isEmpty())
+        {
+            return new int[0];
+        }
+
+        words = foldedWords.toArray(new String[0]);
+
+        return executor.reduce(table.rowCount(), (from, to) ->
+        {
+            final int[] counts;
+
+            counts = new int[words.length];
+
+            for(int row = from; row < to; ++row)
+            {
+                if(table.isLive(row))
+                {
+                    for(int word = 0; word < words.length; ++word)
+                    {
+                        if(table.foldedTitleContains(row, words[word]))
+                        {
+                            counts[word]++;
+                        }
+                    }
+                }
+            }
+
+            return counts;
+        }, (left, right) ->
+        {
+            for(int word = 0; word < left.length; ++word)
+            {
+                left[word] += right[word];
+            }
+
+            return left;
+        });
+    }
+
+    /**
+     * Returns the {@code k} smallest novels according to the comparator, in that order.
+     * A bounded heap of {@code k} novels is kept while scanning, so this costs
+     * O(n log k) instead of sorting the whole catalog. Novels that compare equal keep
+     * catalog order.
+     *
+     * @param comparator the ordering to rank novels by
+     * @param k          the number of novels to return
+     * @return up to {@code k} novels, best first
+     */
+    public List<Novel> topK(final Comparator<Novel> comparator,
+                            final int               k)
+    {
+        final Comparator<Ranked>    ranking;
+        final PriorityQueue<Ranked> heap;
+        final QueryMetrics          recorder;
+        final long                  start;
+        final List<Novel>           top;
+
+        if(k < 0)
+        {
+            throw new IllegalArgumentException("k cannot be negative: " + k);
+        }
+
+        ranking  = Comparator.comparing(Ranked::novel, comparator).thenComparingInt(Ranked::position);
+        // sized by growth rather than by k, which may be far larger than the catalog
+        heap     = new PriorityQueue<>(ranking.reversed());
+        recorder = metrics;
+        start    = recorder.start();
+
+        lock.readLock().lock();
+
+        try
+        {
+            for(int row = 0; row < table.rowCount() && k > 0; ++row)
+            {
+                if(table.isLive(row))
+                {
+                    final Ranked candidate;
+
+                    candidate = new Ranked(table.novelAt(row), row);
+
+                    if(heap.size() < k)
+                    {
+                        heap.add(candidate);
+                    }
+                    else if(ranking.compare(candidate, heap.peek()) < 0)
+                    {
+                        heap.poll();
+                        heap.add(candidate);
+                    }
+                }
+            }
+
+            recorder.record(QueryOperation.TOP_K, start, k > 0 ? table.size() : 0, 0, heap.size());
+        }
+        finally
+        {
+            lock.readLock().unlock();
+        }
+
+        top = new ArrayList<>(heap.size());
+
+        while(!heap.isEmpty())
+        {
+            top.add(heap.poll().novel());
+        }
+
+        Collections.reverse(top);
+
+        return top;
+    }
+
+    /*
+     * A novel together with its row, which is its catalog position, used to break ties in topK.
+     */
+    private record Ranked(Novel novel, int position)
+    {
+    }
+
+    /**
+     * Returns the oldest novels in order of publication, read straight from the year index.
+     *
+     * @param count the number of novels to return
+     * @return up to {@code count} of the oldest novels
+     */
+    public List<Novel> getOldestBooks(final int count)
+    {
+        if(count < 0)
+        {
+            throw new IllegalArgumentException("Count cannot be negative: " + count);
+        }
+
+        lock.readLock().lock();
+
+        try
+        {
+            final int[] oldest;
+
+            oldest = yearIndex.oldest(count);
+
+            return table.novels(oldest, oldest.length);
+        }
+        finally
+        {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns one page of novels in alphabetical order. Pass null for the first page, then
+     * the title of the last novel on each page to get the next one. The page is located by
+     * binary search over the cached alphabetical view, so it costs O(log n + limit).
+     *
+     * @param after the exact title of the last novel already shown, or null to start at the beginning
+     * @param limit the largest number of novels on the page
+     * @return the next novels in alphabetical order
+     */
+    public List<Novel> page(final String after,
+                            final int    limit)
+    {
+        final QueryMetrics recorder;
+        final long         started;
+
+        if(limit < 0)
+        {
+            throw new IllegalArgumentException("Limit cannot be negative: " + limit);
+        }
+
+        recorder = metrics;
+        started  = recorder.start();
+
+        lock.readLock().lock();
+
+        try
+        {
+            final int[] sorted;
+            final int   start;
+            final int[] found;
+
+            sorted = alphaOrder.sorted(table, version);
+            start  = after == null ? 0 : positionAfter(sorted, after);
+            found  = Arrays.copyOfRange(sorted, start, start + Math.min(limit, sorted.length - start));
+
+            recorder.record(QueryOperation.PAGE, started, found.length, sorted.length - found.length, found.length);
+
+            return table.novels(found, found.length);
+        }
+        finally
+        {
+            lock.readLock().unlock();
+        }
+    }
+
+    /*
+     * Finds the position just past the given title in the alphabetical rows. Titles that
+     * fold to the same key are told apart by their exact text; if the title is no longer
+     * stocked, the page resumes after every title that folds like it. Callers hold the read lock.
+     */
+    private int positionAfter(final int[] sorted, final String after)
+    {
+        final String folded;
+        int          low;
+
+        folded = Novel.foldTitle(after);
+        low    = firstAtOrAfter(sorted, folded);
+
+        for(int i = low; i < sorted.length && table.compareFoldedTitle(sorted[i], folded) == 0; ++i)
+        {
+            if(table.titleEquals(sorted[i], after))
+            {
+                return i + 1;
+            }
+
+            low = i + 1;
+        }
+
+        return low;
+    }
+
+    /*
+     * Returns the position of the first row in the alphabetical rows whose folded title
+     * is not less than the given key. Callers hold the read lock.
+     */
+    private int firstAtOrAfter(final int[] sorted, final String folded)
+    {
+        int low;
+        int high;
+
+        low  = 0;
+        high = sorted.length;
+
+        while(low < high)
+        {
+            final int middle;
+
+            middle = (low + high) >>> 1;
+
+            if(table.compareFoldedTitle(sorted[middle], folded) < 0)
+            {
+                low = middle + 1;
+            }
+            else
+            {
+                high = middle;
+            }
+        }
+
+        return low;
+    }
+
+    /**
+     * Returns the novels with a part of their title within the given number of edits of the
+     * query, ignoring case, so that a typo such as "Gatsbey" still finds "The Great Gatsby".
+     * Titles sharing too few trigrams with the query are ruled out by the title index
+     * before any edit distance is computed. Results are ranked by distance, then in
+     * alphabetical order.
+     *
+     * @param query    the text to search for
+     * @param maxEdits the largest number of insertions, deletions and substitutions allowed
+     * @param limit    the largest number of novels to return
+     * @return up to {@code limit} of the closest matches, best first
+     */
+    public List<Novel> fuzzySearch(final String query,
+                                   final int    maxEdits,
+                                   final int    limit)
+    {
+        final QueryMetrics recorder;
+        final long         start;
+
+        if(query == null)
+        {
+            throw new IllegalArgumentException("Query cannot be null");
+        }
+
+        if(maxEdits < 0 || limit < 0)
+        {
+            throw new IllegalArgumentException("Edits and limit cannot be negative: " + maxEdits + ", " + limit);
+        }
+
+        recorder = metrics;
+        start    = recorder.start();
+
+        lock.readLock().lock();
+
+        try
+        {
+            final TitleTrigramIndex.Examined<List<TitleTrigramIndex.Match>> found;
+            final List<TitleTrigramIndex.Match>                             matches;
+            final List<Novel>                                               ranked;
+
+            found   = titleIndex.fuzzySearch(query, maxEdits, executor);
+            matches = found.value();
+            recordExamined(recorder, QueryOperation.FUZZY, start, found.examined(), matches.size());
+
+            // a stable sort, so matches with the same distance and folded title keep catalog order
+            matches.sort(Comparator.comparingInt(TitleTrigramIndex.Match::distance)
+                                   .thenComparing((first, second) -> table.compareFoldedTitles(first.row(), second.row())));
+            ranked = new ArrayList<>(Math.min(limit, matches.size()));
+
+            for(int i = 0; i < matches.size() && i < limit; ++i)
+            {
+                ranked.add(table.novelAt(matches.get(i).row()));
+            }
+
+            return ranked;
+        }
+        finally
+        {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the titles that start with the given prefix, ignoring case, in alphabetical
+     * order. Every title sharing the prefix sits in one run of the cached alphabetical
+     * view, which is found by binary search, so this costs O(log n + limit).
+     *
+     * @param prefix the text the titles must start with
+     * @param limit  the largest number of titles to return
+     * @return up to {@code limit} matching titles
+     */
+    public List<String> titlesStartingWith(final String prefix,
+                                           final int    limit)
+    {
+        final QueryMetrics recorder;
+        final long         start;
+        final String       folded;
+
+        if(prefix == null)
+        {
+            throw new IllegalArgumentException("Prefix cannot be null");
+        }
+
+        if(limit < 0)
+        {
+            throw new IllegalArgumentException("Limit cannot be negative: " + limit);
+        }
+
+        recorder = metrics;
+        start    = recorder.start();
+        folded   = Novel.foldTitle(prefix);
+
+        lock.readLock().lock();
+
+        try
+        {
+            final int[]        sorted;
+            final int          first;
+            final List<String> titles;
+
+            sorted = alphaOrder.sorted(table, version);
+            first  = firstAtOrAfter(sorted, folded);
+            titles = new ArrayList<>(Math.min(limit, sorted.length - first));
+
+            for(int i = first;
+                i < sorted.length && titles.size() < limit && table.foldedTitleStartsWith(sorted[i], folded);
+                ++i)
+            {
+                titles.add(table.titleAt(sorted[i]));
+            }
+
+            recorder.record(QueryOperation.PREFIX, start, titles.size(), sorted.length - titles.size(), titles.size());
+
+            return titles;
+        }
+        finally
+        {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Adds an item of literature to the store's other stock, which {@link #find(CompiledQuery)}
+     * and {@link #count(CompiledQuery)} query.
+     *
+     * @param item the item to add
+     */
+    public void addItem(final T item)
+    {
+        if(item == null || item.getTitle() == null)
+        {
+            throw new IllegalArgumentException("Item and its title cannot be null");
+        }
+
+        lock.writeLock().lock();
+
+        try
+        {
+            items.add(item);
+        }
+        finally
+        {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Runs a compiled query over the store's other stock, in the order items were added.
+     *
+     * @param query the query to run
+     * @return the matching items
+     */
+    public List<T> find(final CompiledQuery<T> query)
+    {
+        return find(query, Function.identity());
+    }
+
+    /**
+     * Runs a compiled query over the store's other stock and projects each match.
+     *
+     * @param query      the query to run
+     * @param projection turns each match into a result
+     * @param <R>        the result type
+     * @return the projected matches, in the order items were added
+     */
+    public <R> List<R> find(final CompiledQuery<T>                 query,
+                            final Function<? super T, ? extends R> projection)
+    {
+        final QueryMetrics recorder;
+        final long         start;
+
+        recorder = metrics;
+        start    = recorder.start();
+
+        lock.readLock().lock();
+
+        try
+        {
+            final List<R> found;
+
+            found = query.execute(items, projection);
+            recorder.record(QueryOperation.FIND_ITEMS, start, items.size(), 0, found.size());
+
+            return found;
+        }
+        finally
+        {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Counts the items of the store's other stock that match a compiled query.
+     *
+     * @param query the query to run
+     * @return the number of matches, never more than the query's limit
+     */
+    public int count(final CompiledQuery<T> query)
+    {
+        final QueryMetrics recorder;
+        final long         start;
+
+        recorder = metrics;
+        start    = recorder.start();
+
+        lock.readLock().lock();
+
+        try
+        {
+            final int counter;
+
+            counter = query.count(items);
+            recorder.record(QueryOperation.COUNT_ITEMS, start, items.size(), 0, counter);
+
+            return counter;
+        }
+        finally
+        {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Runs a compiled query over the novels. An author is answered from the author index.
+     * Otherwise a selective year range is answered from the year index, a title term of at
+     * least three characters is answered from the title index, and anything else scans the
+     * catalog. A year range wide enough that a catalog-order scan would reach the query's
+     * limit sooner than the range could be collected is scanned instead, stopping at the
+     * limit. Whichever plan is picked, matches come back in catalog order, so a query with
+     * a limit returns the same novels as a full scan would.
+     *
+     * @param query the query to run
+     * @return the matching novels
+     */
+    public List<Novel> findNovels(final CompiledQuery<Novel> query)
+    {
+        return findNovels(query, Function.identity());
+    }
+
+    /**
+     * Runs a compiled query over the novels, as {@link #findNovels(CompiledQuery)} does,
+     * and projects each match.
+     *
+     * @param query      the query to run
+     * @param projection turns each match into a result
+     * @param <R>        the result type
+     * @return the projected matches
+     */
+    public <R> List<R> findNovels(final CompiledQuery<Novel>                 query,
+                                  final Function<? super Novel, ? extends R> projection)
+    {
+        final QueryMetrics recorder;
+        final long         start;
+
+        recorder = metrics;
+        start    = recorder.start();
+
+        lock.readLock().lock();
+
+        try
+        {
+            final Candidates candidates;
+            final List<R>    found;
+
+            candidates = novelCandidates(query);
+            found      = query.execute(table, candidates.rows(), candidates.size(), projection);
+            recordCandidates(recorder, QueryOperation.FIND_NOVELS, start, candidates, found.size());
+
+            return found;
+        }
+        finally
+        {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Counts the novels that match a compiled query, using the same index choice as
+     * {@link #findNovels(CompiledQuery)}.
+     *
+     * @param query the query to run
+     * @return the number of matches, never more than the query's limit
+     */
+    public int countNovels(final CompiledQuery<Novel> query)
+    {
+        final QueryMetrics recorder;
+        final long         start;
+
+        recorder = metrics;
+        start    = recorder.start();
+
+        lock.readLock().lock();
+
+        try
+        {
+            final Candidates candidates;
+            final int        counter;
+
+            candidates = novelCandidates(query);
+            counter    = query.count(table, candidates.rows(), candidates.size());
+            recordCandidates(recorder, QueryOperation.COUNT_NOVELS, start, candidates, counter);
+
+            return counter;
+        }
+        finally
+        {
+            lock.readLock().unlock();
+        }
+    }
+
+    /*
+     * Picks the fewest candidate rows an index can give for the query, in catalog order.
+     */
+    private Candidates novelCandidates(final CompiledQuery<Novel> query)
+    {
+        final boolean titleIndexUsable;
+
+        if(query.author() != null)
+        {
+            final int[] rows;
+
+            rows = authorIndex.rows(table.authorIdOf(query.author()));
+
+            return new Candidates(rows, rows.length, 0);
+        }
+
+        titleIndexUsable = query.titleTerm() != null && TitleTrigramIndex.canNarrow(query.titleTerm());
+
+        if(query.hasYearRange())
+        {
+            final int inRange;
+
+            inRange = yearIndex.countBetween(query.firstYear(), query.lastYear());
+
+            if(!titleIndexUsable || inRange <= table.size() / YEAR_INDEX_SELECTIVITY)
+            {
+                final int[] rows;
+
+                // a limited query reaches its limit after about limit * size / inRange novels
+                // of a catalog-order scan, which beats collecting and sorting a wide range
+                if(inRange > 0 && (long) query.limit() * table.size() < (long) inRange * inRange)
+                {
+                    return everyRow();
+                }
+
+                // the year index holds rows in order of publication, and rows sort into catalog order
+                rows = yearIndex.between(query.firstYear(), query.lastYear());
+                Arrays.sort(rows);
+
+                return new Candidates(rows, rows.length, 0);
+            }
+        }
+
+        if(titleIndexUsable)
+        {
+            final TitleTrigramIndex.Examined<int[]> found;
+
+            found = titleIndex.search(query.titleTerm(), executor);
+
+            return new Candidates(found.value(), found.value().length, found.examined());
+        }
+
+        return everyRow();
+    }
+
+    /*
+     * Returns every row of the table as candidates, dead ones included, which a compiled query skips.
+     */
+    private Candidates everyRow()
+    {
+        return new Candidates(null, table.rowCount(), 0);
+    }
+
+    /*
+     * The rows a compiled query checks, or null with every row below size, and how many
+     * titles the title index checked to find them.
+     */
+    private record Candidates(int[] rows, int size, int indexExamined)
+    {
+    }
+
+    /*
+     * Records an index lookup, which examines only the novels it returns.
+     */
+    private void recordLookup(final QueryMetrics   recorder,
+                              final QueryOperation operation,
+                              final long           start,
+                              final int            results)
+    {
+        recordExamined(recorder, operation, start, results, results);
+    }
+
+    /*
+     * Records a query that examined the given number of novels out of the whole catalog.
+     */
+    private void recordExamined(final QueryMetrics   recorder,
+                                final QueryOperation operation,
+                                final long           start,
+                                final int            examined,
+                                final int            results)
+    {
+        recorder.record(operation, start, examined, Math.max(0, table.size() - examined), results);
+    }
+
+    /*
+     * Records a compiled query: the titles its index checked plus the candidates the query
+     * checked again are scanned, and novels neither touched are skipped.
+     */
+    private void recordCandidates(final QueryMetrics   recorder,
+                                  final QueryOperation operation,
+                                  final long           start,
+                                  final Candidates     candidates,
+                                  final int            results)
+    {
+        final int checked;
+        final int touched;
+
+        checked = candidates.rows() == null ? table.size() : candidates.size();
+        touched = Math.max(candidates.indexExamined(), checked);
+
+        recorder.record(operation,
+                        start,
+                        candidates.indexExamined() + checked,
+                        Math.max(0, table.size() - touched),
+                        results);
+    }
+
+    /**
+     * Main method to test the functionality of the {@code BookStore} class.
+     *
+     * @param args command line arguments
+     */
+    public static void main(String[] args)
+    {
+        BookStore<Novel>  store;
+        final Novel       oldest;
+        final List<Novel> fifteenCharTitles;
+
+        store = new BookStore<>("Books and Books and Books");
+        System.out.println("Welcome to " + store.getStoreName());
+
+        System.out.println("Print all of the book titles in UPPERCASE");
+        store.printAllTitles();
+
+        System.out.println("\nBook Titles containing \"The\"");
+        store.printBookTitle("the");
+
+        System.out.println("\nAll Titles in Alphabetical Order");
+        store.printTitlesInAlphaOrder();
+
+        System.out.println("\nBooks from the 2000s");
+        store.printGroupByDecade(2000);
+
+        System.out.println("\nLongest Book Title");
+        store.printLongest();
+
+        System.out.println("\nReturns if there is a book written in 1950?");
+        System.out.println(store.isThereABookWrittenIn(1950));
+
+        System.out.println("\nHow many books contain heart?");
+        System.out.println(store.howManyBooksContain("heart"));
+
+        System.out.println("\nPercentage of books written between 1940 and 1950:");
+        System.out.println(store.whichPercentWrittenBetween(1940, 1950) + "%");
+
+        System.out.println("\nOldest Book Title");
+
+        oldest = store.getOldestBook();
+        System.out.println(oldest.getTitle() + " by " + oldest.getAuthor() + ", " +
+                oldest.getYearPublished());
+
+        System.out.println("\nNovels with 15 characters");
+        fifteenCharTitles = store.getBooksThisLength(15);
+        fifteenCharTitles.forEach(novels -> System.out.println(novels.getTitle()));
+
+
+        System.out.println("\nIterator and HashMap.\nPrint All Titles");
+        {
+            final Iterator<String> it;
+
+            it = store.getTitles().iterator();
+
+            while (it.hasNext())
+            {
+                final String key;
+                final String valueTitle;
+                final Novel  value;
+
+                key = it.next();
+                value = store.getNovel(key);
+                valueTitle = value.getTitle();
+
+                System.out.println(valueTitle);
+            }
+        }
+
+        System.out.println("\nAll titles containing \"The\" filtered out:");
+        {
+            final String foldedThe;
+
+            foldedThe = Novel.foldTitle("the");
+
+            store.removeIf(novel -> novel.titleContains(foldedThe));
+
+            for(String key : store.getTitles())
+            {
+                final Novel value;
+
+                value = store.getNovel(key);
+                System.out.println(value);
+            }
+        }
+
+    }
+}
\ No newline at end of file
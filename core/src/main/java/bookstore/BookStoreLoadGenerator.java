@@ -0,0 +1,247 @@
+package bookstore;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The {@code BookStoreLoadGenerator} class measures a {@link BookStoreServer} on localhost.
+ * Each simulated client runs on its own virtual thread and cycles through every endpoint,
+ * for a fixed time after a one second warm-up. It then reports throughput and latency
+ * percentiles of the measured period.
+ * <p>
+ * The load is open-loop: the clients together send a fixed number of requests per second
+ * on a fixed schedule. A client sends each request with {@link HttpClient#sendAsync} when
+ * it falls due and goes straight on to the next, never waiting for an answer, so a slow
+ * server does not slow the load down. Latency is measured from when a request was due,
+ * so a server that stalls is charged for the requests that queued up behind the stall
+ * instead of hiding them, as a client that only sends after each answer would. A request
+ * unanswered after {@value REQUEST_TIMEOUT} seconds counts as an error.
+ * <p>
+ * Without a URL, it starts a server over a synthetic catalog in the same process.
+ * <p>
+ * Usage: {@code java bookstore.BookStoreLoadGenerator [clients [seconds [baseUrl [rate]]]]}, for example
+ * {@code java bookstore.BookStoreLoadGenerator 200 10 http://localhost:8080 5000}. Pass {@code -} as the
+ * URL to use the embedded server with a chosen rate.
+ *
+ * @version 1.0
+ */
+public final class BookStoreLoadGenerator
+{
+    private static final int      DEFAULT_CLIENTS = 64;
+    private static final int      DEFAULT_SECONDS = 5;
+    private static final int      DEFAULT_RATE    = 2_000;
+    private static final int      WARMUP_SECONDS  = 1;
+    private static final int      REQUEST_TIMEOUT = 30;
+    private static final int      CATALOG_SIZE    = 100_000;
+    private static final int      OK              = 200;
+    private static final double   MEDIAN          = 50.0;
+    private static final double   P99             = 99.0;
+    private static final double   NANOS_PER_MILLI = 1_000_000.0;
+    private static final double   NANOS_PER_SEC   = 1_000_000_000.0;
+    private static final String[] PATHS           = {
+        "/search?title=heart",
+        "/search?title=the",
+        "/decade?year=1950",
+        "/percent?from=1900&to=1950",
+        "/oldest",
+        "/length?n=15"
+    };
+
+    private BookStoreLoadGenerator()
+    {
+    }
+
+    /**
+     * Runs the load and prints the results.
+     *
+     * @param args the number of clients, the number of seconds, the server's base URL, and
+     *             the number of requests per second
+     * @throws IOException          if the embedded server cannot start
+     * @throws InterruptedException if interrupted while waiting for the clients
+     */
+    public static void main(final String[] args) throws IOException, InterruptedException
+    {
+        final int              clients;
+        final int              seconds;
+        final int              rate;
+        final long             interval;
+        final BookStoreServer  embedded;
+        final String           baseUrl;
+        final HttpClient       client;
+        final List<URI>        targets;
+        final LatencyHistogram latencies;
+        final LongAdder        errors;
+        final long             measureFrom;
+        final long             deadline;
+        final long             elapsed;
+        final long             requests;
+
+        clients   = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_CLIENTS;
+        seconds   = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_SECONDS;
+        rate      = args.length > 3 ? Integer.parseInt(args[3]) : DEFAULT_RATE;
+
+        if(clients <= 0 || rate <= 0)
+        {
+            throw new IllegalArgumentException("Clients and rate must be positive");
+        }
+
+        embedded  = args.length > 2 && !"-".equals(args[2]) ? null : embeddedServer();
+        baseUrl   = embedded == null ? args[2] : "http://localhost:" + embedded.getPort();
+        client    = HttpClient.newBuilder()
+                              .version(HttpClient.Version.HTTP_1_1)
+                              .executor(Executors.newVirtualThreadPerTaskExecutor())
+                              .build();
+        targets   = new ArrayList<>();
+        latencies = new LatencyHistogram();
+        errors    = new LongAdder();
+
+        interval = TimeUnit.SECONDS.toNanos(1) * clients / rate;
+
+        for(String path : PATHS)
+        {
+            targets.add(URI.create(baseUrl + path));
+        }
+
+        if(embedded != null)
+        {
+            embedded.start();
+        }
+
+        measureFrom = System.nanoTime() + TimeUnit.SECONDS.toNanos(WARMUP_SECONDS);
+        deadline    = measureFrom + TimeUnit.SECONDS.toNanos(seconds);
+
+        try(ExecutorService load = Executors.newVirtualThreadPerTaskExecutor())
+        {
+            final long firstDue;
+
+            firstDue = System.nanoTime();
+
+            for(int i = 0; i < clients; ++i)
+            {
+                final int  firstTarget;
+                final long clientDue;
+
+                firstTarget = i;
+                clientDue   = firstDue + interval * i / clients;
+
+                load.submit(() -> runClient(client, targets, firstTarget, clientDue, interval,
+                                            measureFrom, deadline, latencies, errors));
+            }
+        }
+
+        elapsed  = System.nanoTime() - measureFrom;
+        requests = latencies.count();
+
+        if(embedded != null)
+        {
+            embedded.close();
+        }
+
+        System.out.printf("%d clients at %d requests/s, %d requests in %.1f s%n",
+                          clients, rate, requests, elapsed / NANOS_PER_SEC);
+        System.out.printf("throughput %.0f requests/s, errors %d%n", requests / (elapsed / NANOS_PER_SEC), errors.sum());
+        System.out.printf("latency p50 %.3f ms, p99 %.3f ms, max %.3f ms%n",
+                          latencies.valueAtPercentile(MEDIAN) / NANOS_PER_MILLI,
+                          latencies.valueAtPercentile(P99) / NANOS_PER_MILLI,
+                          latencies.max() / NANOS_PER_MILLI);
+    }
+
+    /*
+     * Creates a server over a synthetic catalog on a free local port.
+     */
+    private static BookStoreServer embeddedServer() throws IOException
+    {
+        final BookStore<Novel> store;
+
+        store = new BookStore<>("Load test", SyntheticCatalog.novels(CATALOG_SIZE));
+
+        return new BookStoreServer(store, new InetSocketAddress("localhost", 0));
+    }
+
+    /*
+     * Sends one request every interval from firstDue until the deadline, starting at its own
+     * endpoint so clients spread evenly over them, then waits for the answers still
+     * outstanding. Requests are sent without waiting for earlier answers; one that falls
+     * behind schedule is sent at once, and its latency still counts from when it was due.
+     * Only requests due after measureFrom are recorded.
+     */
+    private static void runClient(final HttpClient       client,
+                                  final List<URI>        targets,
+                                  final int              firstTarget,
+                                  final long             firstDue,
+                                  final long             interval,
+                                  final long             measureFrom,
+                                  final long             deadline,
+                                  final LatencyHistogram latencies,
+                                  final LongAdder        errors)
+    {
+        final List<CompletableFuture<Void>> answers;
+        int                                 target;
+        long                                due;
+
+        answers = new ArrayList<>();
+        target  = firstTarget;
+        due     = firstDue;
+
+        while(due < deadline)
+        {
+            final HttpRequest request;
+            final long        wait;
+            final long        sentDue;
+
+            request = HttpRequest.newBuilder(targets.get(target++ % targets.size()))
+                                 .timeout(Duration.ofSeconds(REQUEST_TIMEOUT))
+                                 .GET()
+                                 .build();
+            wait    = due - System.nanoTime();
+            sentDue = due;
+
+            if(wait > 0)
+            {
+                try
+                {
+                    TimeUnit.NANOSECONDS.sleep(wait);
+                }
+                catch(final InterruptedException e)
+                {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+
+            answers.add(client.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
+                              .handle((response, failure) ->
+                              {
+                                  if(sentDue >= measureFrom)
+                                  {
+                                      if(failure == null && response.statusCode() == OK)
+                                      {
+                                          latencies.record(System.nanoTime() - sentDue);
+                                      }
+                                      else
+                                      {
+                                          errors.increment();
+                                      }
+                                  }
+
+                                  return null;
+                              }));
+
+            due += interval;
+        }
+
+        CompletableFuture.allOf(answers.toArray(new CompletableFuture<?>[0])).join();
+    }
+}
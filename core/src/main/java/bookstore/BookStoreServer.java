@@ -0,0 +1,333 @@
+package bookstore;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * The {@code BookStoreServer} class serves {@link BookStore} queries over HTTP with the
+ * JDK's built-in server, handling every request on its own virtual thread. The store's
+ * read lock lets any number of requests query it at once.
+ * <p>
+ * Every endpoint answers {@code GET} with plain text, one result per line:
+ * <ul>
+ *     <li>{@code /search?title=heart}: novels whose title contains the text</li>
+ *     <li>{@code /decade?year=2000}: novels published in that decade</li>
+ *     <li>{@code /percent?from=1940&to=1950}: percentage of novels published in the range</li>
+ *     <li>{@code /oldest}: the oldest novel</li>
+ *     <li>{@code /length?n=15}: novels whose title has that many characters</li>
+ * </ul>
+ * Any other path, such as {@code /search/more} or {@code /oldestx}, is answered with
+ * status 404. A missing or malformed parameter is answered with status 400, and any
+ * other failure with status 500, so a client is never left waiting.
+ * <p>
+ * Usage: {@code java bookstore.BookStoreServer [port]}. The server only listens on the loopback
+ * address.
+ *
+ * @version 1.0
+ */
+public final class BookStoreServer implements AutoCloseable
+{
+    private static final int    DEFAULT_PORT   = 8080;
+    private static final int    OK             = 200;
+    private static final int    BAD_REQUEST    = 400;
+    private static final int    NOT_FOUND      = 404;
+    private static final int    BAD_METHOD     = 405;
+    private static final int    SERVER_ERROR   = 500;
+    private static final String CONTENT_TYPE   = "text/plain; charset=utf-8";
+    private static final String LINE_SEPARATOR = "\n";
+
+    private final BookStore<?>    store;
+    private final HttpServer      server;
+    private final ExecutorService executor;
+
+    /**
+     * Constructs a {@code BookStoreServer} for the given store, bound to the given address.
+     * The server does not accept requests until {@link #start()} is called.
+     *
+     * @param store   the store to query
+     * @param address the address to listen on; port 0 picks a free port
+     * @throws IOException if the address cannot be bound
+     */
+    public BookStoreServer(final BookStore<?>      store,
+                           final InetSocketAddress address) throws IOException
+    {
+        if(store == null)
+        {
+            throw new IllegalArgumentException("Store cannot be null");
+        }
+
+        this.store    = store;
+        this.server   = HttpServer.create(address, 0);
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+
+        server.setExecutor(executor);
+        server.createContext("/search", exchange -> respond(exchange, this::search));
+        server.createContext("/decade", exchange -> respond(exchange, this::decade));
+        server.createContext("/percent", exchange -> respond(exchange, this::percent));
+        server.createContext("/oldest", exchange -> respond(exchange, this::oldest));
+        server.createContext("/length", exchange -> respond(exchange, this::length));
+    }
+
+    /**
+     * Starts accepting requests.
+     */
+    public void start()
+    {
+        server.start();
+    }
+
+    /**
+     * Returns the port the server listens on.
+     *
+     * @return the bound port
+     */
+    public int getPort()
+    {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Stops accepting requests and waits for those in progress to finish.
+     */
+    @Override
+    public void close()
+    {
+        server.stop(0);
+        executor.close();
+    }
+
+    /*
+     * Lists the novels whose title contains the title parameter.
+     */
+    private String search(final Map<String, String> parameters) throws IOException
+    {
+        final StringBuilder body;
+
+        body = new StringBuilder();
+        store.printBookTitle(required(parameters, "title"), body);
+
+        return body.toString();
+    }
+
+    /*
+     * Lists the novels published in the decade of the year parameter.
+     */
+    private String decade(final Map<String, String> parameters) throws IOException
+    {
+        final StringBuilder body;
+
+        body = new StringBuilder();
+        store.printGroupByDecade(requiredInt(parameters, "year"), body);
+
+        return body.toString();
+    }
+
+    /*
+     * Returns the percentage of novels published between the from and to parameters.
+     */
+    private String percent(final Map<String, String> parameters)
+    {
+        return store.whichPercentWrittenBetween(requiredInt(parameters, "from"),
+                                                requiredInt(parameters, "to")) + LINE_SEPARATOR;
+    }
+
+    /*
+     * Returns the oldest novel.
+     */
+    private String oldest(final Map<String, String> parameters)
+    {
+        return store.getOldestBook() + LINE_SEPARATOR;
+    }
+
+    /*
+     * Lists the novels whose title has n characters.
+     */
+    private String length(final Map<String, String> parameters)
+    {
+        final StringBuilder body;
+
+        body = new StringBuilder();
+
+        for(Novel novel : store.getBooksThisLength(requiredInt(parameters, "n")))
+        {
+            body.append(novel.getTitle()).append(LINE_SEPARATOR);
+        }
+
+        return body.toString();
+    }
+
+    /*
+     * Runs one endpoint and sends its answer, mapping an unknown path or an empty store to
+     * 404, bad input to 400 and any other failure to 500.
+     */
+    private static void respond(final HttpExchange exchange,
+                                final Endpoint     endpoint) throws IOException
+    {
+        try(exchange)
+        {
+            int    status;
+            String body;
+
+            // a context matches every path it prefixes, so anything longer is not this endpoint
+            if(!exchange.getHttpContext().getPath().equals(exchange.getRequestURI().getPath()))
+            {
+                status = NOT_FOUND;
+                body   = "No such endpoint: " + exchange.getRequestURI().getPath() + LINE_SEPARATOR;
+            }
+            else if(!"GET".equals(exchange.getRequestMethod()))
+            {
+                status = BAD_METHOD;
+                body   = "Only GET is supported" + LINE_SEPARATOR;
+            }
+            else
+            {
+                try
+                {
+                    status = OK;
+                    body   = endpoint.answer(parameters(exchange.getRequestURI().getRawQuery()));
+                }
+                catch(final IllegalArgumentException e)
+                {
+                    status = BAD_REQUEST;
+                    body   = e.getMessage() + LINE_SEPARATOR;
+                }
+                catch(final NoSuchElementException e)
+                {
+                    status = NOT_FOUND;
+                    body   = "The store has no novels" + LINE_SEPARATOR;
+                }
+                catch(final RuntimeException e)
+                {
+                    status = SERVER_ERROR;
+                    body   = "Internal error" + LINE_SEPARATOR;
+                }
+            }
+
+            send(exchange, status, body);
+        }
+    }
+
+    /*
+     * Writes the status line, headers and body of a response.
+     */
+    private static void send(final HttpExchange exchange,
+                             final int          status,
+                             final String       body) throws IOException
+    {
+        final byte[] bytes;
+
+        bytes = body.getBytes(StandardCharsets.UTF_8);
+
+        exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+        exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+
+        if(bytes.length > 0)
+        {
+            try(OutputStream out = exchange.getResponseBody())
+            {
+                out.write(bytes);
+            }
+        }
+    }
+
+    /*
+     * Decodes a raw query string into its parameters; later repeats of a name win.
+     */
+    private static Map<String, String> parameters(final String rawQuery)
+    {
+        final Map<String, String> parameters;
+
+        parameters = new HashMap<>();
+
+        if(rawQuery == null || rawQuery.isEmpty())
+        {
+            return parameters;
+        }
+
+        for(String pair : rawQuery.split("&"))
+        {
+            final int separator;
+
+            separator = pair.indexOf('=');
+
+            if(separator > 0)
+            {
+                parameters.put(URLDecoder.decode(pair.substring(0, separator), StandardCharsets.UTF_8),
+                               URLDecoder.decode(pair.substring(separator + 1), StandardCharsets.UTF_8));
+            }
+        }
+
+        return parameters;
+    }
+
+    /*
+     * Returns a parameter, failing if it is missing.
+     */
+    private static String required(final Map<String, String> parameters, final String name)
+    {
+        final String value;
+
+        value = parameters.get(name);
+
+        if(value == null)
+        {
+            throw new IllegalArgumentException("Missing parameter: " + name);
+        }
+
+        return value;
+    }
+
+    /*
+     * Returns a parameter as an int, failing if it is missing or not a number.
+     */
+    private static int requiredInt(final Map<String, String> parameters, final String name)
+    {
+        try
+        {
+            return Integer.parseInt(required(parameters, name));
+        }
+        catch(final NumberFormatException e)
+        {
+            throw new IllegalArgumentException("Parameter " + name + " must be a whole number");
+        }
+    }
+
+    /*
+     * Computes the body of one endpoint from the request parameters.
+     */
+    @FunctionalInterface
+    private interface Endpoint
+    {
+        String answer(Map<String, String> parameters) throws IOException;
+    }
+
+    /**
+     * Serves the sample catalog on the loopback address until the process is stopped.
+     *
+     * @param args an optional port, 8080 by default
+     * @throws IOException if the port cannot be bound
+     */
+    public static void main(final String[] args) throws IOException
+    {
+        final int             port;
+        final BookStoreServer bookStoreServer;
+
+        port            = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        bookStoreServer = new BookStoreServer(new BookStore<>("Books and Books and Books"),
+                                              new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+
+        bookStoreServer.start();
+        System.out.println("Serving on port " + bookStoreServer.getPort());
+    }
+}
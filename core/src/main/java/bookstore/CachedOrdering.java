@@ -0,0 +1,124 @@
+package bookstore;
+
+/**
+ * The {@code CachedOrdering} class keeps the live rows of a {@link NovelTable} sorted in
+ * one ordering. The sorted rows are rebuilt lazily, only when they are read after the
+ * catalog version has changed, so repeated ordered reads cost no sort.
+ * <p>
+ * Rows are sorted with a stable merge sort on a plain {@code int[]}, comparing the
+ * table's columns directly, so no novel is created to sort them. Rows that compare equal
+ * keep catalog order.
+ *
+ * @version 1.0
+ */
+final class CachedOrdering
+{
+    private final RowOrder    order;
+    private volatile Snapshot snapshot;
+
+    /**
+     * Constructs a {@code CachedOrdering} that sorts with the given row order.
+     *
+     * @param order the ordering to cache; ties keep catalog order
+     */
+    CachedOrdering(final RowOrder order)
+    {
+        this.order = order;
+    }
+
+    /**
+     * Returns the live rows in this ordering, sorting them again only if the catalog
+     * changed since the last call. The array is shared and must not be changed.
+     *
+     * @param table   the current table
+     * @param version the current catalog version, changed on every mutation
+     * @return the sorted rows
+     */
+    int[] sorted(final NovelTable table,
+                 final long       version)
+    {
+        final Snapshot current;
+        final int[]    rows;
+        final Snapshot rebuilt;
+
+        current = snapshot;
+
+        if(current != null && current.version() == version)
+        {
+            return current.rows();
+        }
+
+        rows = table.liveRows();
+        mergeSort(table, rows, rows.clone(), 0, rows.length);
+
+        rebuilt  = new Snapshot(version, rows);
+        snapshot = rebuilt;
+
+        return rebuilt.rows();
+    }
+
+    /*
+     * Sorts rows[from, to) stably, using the same range of scratch, which holds the same
+     * rows, as the other half of each merge.
+     */
+    private void mergeSort(final NovelTable table,
+                           final int[]      rows,
+                           final int[]      scratch,
+                           final int        from,
+                           final int        to)
+    {
+        final int middle;
+        int       left;
+        int       right;
+
+        if(to - from < 2)
+        {
+            return;
+        }
+
+        middle = (from + to) >>> 1;
+
+        // sorting each half of scratch into place leaves rows free to take the merge
+        mergeSort(table, scratch, rows, from, middle);
+        mergeSort(table, scratch, rows, middle, to);
+
+        left  = from;
+        right = middle;
+
+        for(int i = from; i < to; ++i)
+        {
+            if(right >= to || left < middle && order.compare(table, scratch[left], scratch[right]) <= 0)
+            {
+                rows[i] = scratch[left++];
+            }
+            else
+            {
+                rows[i] = scratch[right++];
+            }
+        }
+    }
+
+    /**
+     * An ordering of the rows of a table.
+     */
+    @FunctionalInterface
+    interface RowOrder
+    {
+        /**
+         * Compares two rows of the table.
+         *
+         * @param table  the table holding both rows
+         * @param first  one row
+         * @param second the other row
+         * @return a negative number, zero or a positive number as the first row sorts before, with or after the second
+         */
+        int compare(NovelTable table, int first, int second);
+    }
+
+    /*
+     * Sorted rows together with the catalog version they were built from.
+     */
+    private record Snapshot(long version, int[] rows)
+    {
+    }
+}
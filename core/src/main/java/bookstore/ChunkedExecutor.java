@@ -0,0 +1,134 @@
+package bookstore;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BinaryOperator;
+
+/**
+ * The {@code ChunkedExecutor} class runs a query over index ranges, either in a single
+ * pass or split into chunks on a {@link ForkJoinPool}.
+ * <p>
+ * Ranges no larger than the threshold always run sequentially. Larger ranges are halved
+ * until each chunk fits the threshold, and partial results are merged left to right, so
+ * a merge function that prefers its left argument on ties gives exactly the sequential
+ * answer.
+ *
+ * @version 1.0
+ */
+final class ChunkedExecutor
+{
+    /**
+     * An executor that always runs the whole range in the calling thread.
+     */
+    static final ChunkedExecutor SEQUENTIAL = new ChunkedExecutor(null, Integer.MAX_VALUE);
+
+    private final ForkJoinPool pool;
+    private final int          threshold;
+
+    /**
+     * Constructs a {@code ChunkedExecutor} that splits ranges larger than the threshold
+     * across the given pool.
+     *
+     * @param pool      the pool to run chunks on, or null to stay sequential
+     * @param threshold the largest range, and chunk, that runs without splitting
+     */
+    ChunkedExecutor(final ForkJoinPool pool,
+                    final int          threshold)
+    {
+        if(threshold < 1)
+        {
+            throw new IllegalArgumentException("Threshold must be positive: " + threshold);
+        }
+
+        this.pool      = pool;
+        this.threshold = threshold;
+    }
+
+    /**
+     * Computes a partial result for every chunk of {@code [0, size)} and merges them in order.
+     *
+     * @param size   the number of elements in the range
+     * @param task   computes the result for one chunk
+     * @param merger merges the results of two adjacent chunks, left first
+     * @param <R>    the result type
+     * @return the merged result for the whole range
+     */
+    <R> R reduce(final int               size,
+                 final RangeTask<R>      task,
+                 final BinaryOperator<R> merger)
+    {
+        if(pool == null || size <= threshold)
+        {
+            return task.apply(0, size);
+        }
+
+        return pool.invoke(new ChunkTask<>(task, merger, threshold, 0, size));
+    }
+
+    /**
+     * A query over the elements from {@code from}, inclusive, to {@code to}, exclusive.
+     *
+     * @param <R> the result type
+     */
+    @FunctionalInterface
+    interface RangeTask<R>
+    {
+        /**
+         * Computes the result for one range.
+         *
+         * @param from the first index, inclusive
+         * @param to   the last index, exclusive
+         * @return the result for the range
+         */
+        R apply(int from, int to);
+    }
+
+    /*
+     * Splits a range in half until it fits the threshold, then merges the halves in order.
+     */
+    private static final class ChunkTask<R> extends RecursiveTask<R>
+    {
+        private static final long serialVersionUID = 1L;
+
+        // tasks are never serialized; the lambdas they carry need not be serializable
+        private final transient RangeTask<R>      task;
+        private final transient BinaryOperator<R> merger;
+        private final int                         threshold;
+        private final int                         from;
+        private final int                         to;
+
+        private ChunkTask(final RangeTask<R>      task,
+                          final BinaryOperator<R> merger,
+                          final int               threshold,
+                          final int               from,
+                          final int               to)
+        {
+            this.task      = task;
+            this.merger    = merger;
+            this.threshold = threshold;
+            this.from      = from;
+            this.to        = to;
+        }
+
+        @Override
+        protected R compute()
+        {
+            final int          middle;
+            final ChunkTask<R> left;
+            final R            right;
+
+            if(to - from <= threshold)
+            {
+                return task.apply(from, to);
+            }
+
+            middle = (from + to) >>> 1;
+            left   = new ChunkTask<>(task, merger, threshold, from, middle);
+
+            left.fork();
+            right = new ChunkTask<>(task, merger, threshold, middle, to).compute();
+
+            return merger.apply(left.join(), right);
+        }
+    }
+}
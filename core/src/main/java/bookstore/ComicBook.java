@@ -1,3 +1,5 @@
+package bookstore;
+
 public class ComicBook extends Literature
 {
     private final String title;
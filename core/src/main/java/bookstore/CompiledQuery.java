@@ -0,0 +1,313 @@
+package bookstore;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * The {@code CompiledQuery} class is the executable form of a {@link LiteratureQuery}.
+ * All of its conditions are fused into one predicate, checked cheapest first, so running
+ * it takes a single pass over the candidates with no intermediate collections.
+ * <p>
+ * A compiled query is immutable and can be shared between threads and run repeatedly.
+ * {@link BookStore} also reads its conditions to choose an index for the candidates.
+ *
+ * @param <E> the type of literature the query returns
+ *
+ * @version 1.0
+ */
+public final class CompiledQuery<E extends Literature>
+{
+    private final Class<? extends Literature> type;
+    private final String                      titleTerm;
+    private final String                      foldedTerm;
+    private final String                      author;
+    private final boolean                     hasYearRange;
+    private final int                         firstYear;
+    private final int                         lastYear;
+    private final int                         limit;
+
+    /*
+     * Captures the conditions of a LiteratureQuery.
+     */
+    CompiledQuery(final Class<? extends Literature> type,
+                  final String                      titleTerm,
+                  final String                      author,
+                  final boolean                     hasYearRange,
+                  final int                         firstYear,
+                  final int                         lastYear,
+                  final int                         limit)
+    {
+        this.type         = type;
+        this.titleTerm    = titleTerm;
+        this.foldedTerm   = titleTerm == null ? null : Novel.foldTitle(titleTerm);
+        this.author       = author;
+        this.hasYearRange = hasYearRange;
+        this.firstYear    = firstYear;
+        this.lastYear     = lastYear;
+        this.limit        = limit;
+    }
+
+    /**
+     * Returns whether an item satisfies every condition of the query.
+     *
+     * @param item the item to check
+     * @return true if the item matches
+     */
+    public boolean matches(final Literature item)
+    {
+        if(type != null && !type.isInstance(item))
+        {
+            return false;
+        }
+
+        if(hasYearRange || author != null)
+        {
+            if(!(item instanceof Novel novel))
+            {
+                return false;
+            }
+
+            if(hasYearRange && (novel.getYearPublished() < firstYear || novel.getYearPublished() > lastYear))
+            {
+                return false;
+            }
+
+            if(author != null && !author.equals(novel.getAuthor()))
+            {
+                return false;
+            }
+        }
+
+        if(foldedTerm != null)
+        {
+            if(item instanceof Novel novel)
+            {
+                return novel.titleContains(foldedTerm);
+            }
+
+            return Novel.foldTitle(item.getTitle()).contains(foldedTerm);
+        }
+
+        return true;
+    }
+
+    /**
+     * Runs the query over the candidates in one pass, projecting each match as it is found
+     * and stopping at the limit.
+     *
+     * @param candidates the items to check, in the order results should come back
+     * @param projection turns each match into a result
+     * @param <R>        the result type
+     * @return the projected matches
+     */
+    public <R> List<R> execute(final List<? extends E>                candidates,
+                               final Function<? super E, ? extends R> projection)
+    {
+        final List<R> results;
+
+        results = new ArrayList<>();
+
+        for(E item : candidates)
+        {
+            if(results.size() >= limit)
+            {
+                break;
+            }
+
+            if(matches(item))
+            {
+                results.add(projection.apply(item));
+            }
+        }
+
+        return results;
+    }
+
+    /**
+     * Counts the candidates that match, up to the limit.
+     *
+     * @param candidates the items to check
+     * @return the number of matches, never more than the limit
+     */
+    public int count(final List<? extends E> candidates)
+    {
+        int counter;
+
+        counter = 0;
+
+        for(E item : candidates)
+        {
+            if(counter >= limit)
+            {
+                break;
+            }
+
+            if(matches(item))
+            {
+                counter++;
+            }
+        }
+
+        return counter;
+    }
+
+    /**
+     * Runs the query over rows of a novel table, as {@link #execute(List, Function)} does
+     * over novels, checking the table's columns and only making a novel for each match.
+     * Dead rows never match.
+     *
+     * @param table      the table holding the novels
+     * @param rows       the rows to check, in the order results should come back, or null for every row below size
+     * @param size       the number of rows to check
+     * @param projection turns each matching novel into a result
+     * @param <R>        the result type
+     * @return the projected matches
+     */
+    <R> List<R> execute(final NovelTable                           table,
+                        final int[]                                rows,
+                        final int                                  size,
+                        final Function<? super Novel, ? extends R> projection)
+    {
+        final int     authorId;
+        final List<R> results;
+
+        authorId = author == null ? AuthorDictionary.NO_AUTHOR : table.authorIdOf(author);
+        results  = new ArrayList<>();
+
+        if(!matchesNovels(table, authorId))
+        {
+            return results;
+        }
+
+        for(int i = 0; i < size && results.size() < limit; ++i)
+        {
+            final int row;
+
+            row = rows == null ? i : rows[i];
+
+            if(matches(table, row, authorId))
+            {
+                results.add(projection.apply(table.novelAt(row)));
+            }
+        }
+
+        return results;
+    }
+
+    /**
+     * Counts the rows of a novel table that match, up to the limit, without making any novel.
+     *
+     * @param table the table holding the novels
+     * @param rows  the rows to check, or null for every row below size
+     * @param size  the number of rows to check
+     * @return the number of matches, never more than the limit
+     */
+    int count(final NovelTable table,
+              final int[]      rows,
+              final int        size)
+    {
+        final int authorId;
+        int       counter;
+
+        authorId = author == null ? AuthorDictionary.NO_AUTHOR : table.authorIdOf(author);
+        counter  = 0;
+
+        if(!matchesNovels(table, authorId))
+        {
+            return 0;
+        }
+
+        for(int i = 0; i < size && counter < limit; ++i)
+        {
+            if(matches(table, rows == null ? i : rows[i], authorId))
+            {
+                counter++;
+            }
+        }
+
+        return counter;
+    }
+
+    /*
+     * Returns whether any novel of the table could match: the type must admit novels, and
+     * a required author must be in the table's dictionary.
+     */
+    private boolean matchesNovels(final NovelTable table, final int authorId)
+    {
+        return (type == null || type.isAssignableFrom(Novel.class)) &&
+               (author == null || authorId != AuthorDictionary.NO_AUTHOR);
+    }
+
+    /*
+     * Checks one live row against the year range, the author's id and the folded title
+     * term, cheapest first.
+     */
+    private boolean matches(final NovelTable table, final int row, final int authorId)
+    {
+        if(!table.isLive(row))
+        {
+            return false;
+        }
+
+        if(hasYearRange && (table.yearAt(row) < firstYear || table.yearAt(row) > lastYear))
+        {
+            return false;
+        }
+
+        if(author != null && table.authorIdAt(row) != authorId)
+        {
+            return false;
+        }
+
+        return foldedTerm == null || table.foldedTitleContains(row, foldedTerm);
+    }
+
+    /*
+     * Returns the raw title term, or null if the query has none.
+     */
+    String titleTerm()
+    {
+        return titleTerm;
+    }
+
+    /*
+     * Returns the required author, or null if the query has none.
+     */
+    String author()
+    {
+        return author;
+    }
+
+    /*
+     * Returns whether the query restricts the year of publication.
+     */
+    boolean hasYearRange()
+    {
+        return hasYearRange;
+    }
+
+    /*
+     * Returns the first year of the range.
+     */
+    int firstYear()
+    {
+        return firstYear;
+    }
+
+    /*
+     * Returns the last year of the range.
+     */
+    int lastYear()
+    {
+        return lastYear;
+    }
+
+    /*
+     * Returns the largest number of matches to return.
+     */
+    int limit()
+    {
+        return limit;
+    }
+}
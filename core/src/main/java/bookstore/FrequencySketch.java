@@ -0,0 +1,127 @@
+package bookstore;
+
+/**
+ * The {@code FrequencySketch} class estimates how often keys have been seen, in a fixed
+ * amount of memory, with a count-min sketch: every key increments one small counter in
+ * each of four rows, and its estimate is the smallest of those counters.
+ * <p>
+ * Counters saturate at fifteen and are all halved once the sketch has seen ten times
+ * as many keys as it is sized for, so old popularity fades and recent requests count
+ * more. This is the admission filter of TinyLFU.
+ *
+ * @version 1.0
+ */
+final class FrequencySketch
+{
+    private static final int   DEPTH         = 4;
+    private static final int   MAX_COUNT     = 15;
+    private static final int   MIN_WIDTH     = 64;
+    private static final int   MAX_WIDTH     = 1 << 24;
+    private static final int   SAMPLE_FACTOR = 10;
+    private static final int[] SEEDS         = {0x97CB3127, 0xB3C6C3F5, 0x8C6F1EE5, 0xC2B2AE35};
+
+    private final byte[] counters;
+    private final int    widthMask;
+    private final long   sampleSize;
+    private long         additions;
+
+    /**
+     * Constructs a {@code FrequencySketch} sized for the given number of distinct keys.
+     *
+     * @param expectedKeys roughly how many keys are tracked at once
+     */
+    FrequencySketch(final long expectedKeys)
+    {
+        final int width;
+
+        width = (int) Math.min(MAX_WIDTH, Math.max(MIN_WIDTH, Long.highestOneBit(Math.max(2L, expectedKeys) - 1) << 1));
+
+        this.counters   = new byte[DEPTH * width];
+        this.widthMask  = width - 1;
+        this.sampleSize = (long) SAMPLE_FACTOR * width;
+    }
+
+    /**
+     * Records one occurrence of a key. Only the counters at the current minimum grow,
+     * which keeps estimates of rare keys from being inflated by collisions.
+     *
+     * @param key the key seen
+     */
+    void increment(final Object key)
+    {
+        final int hash;
+        final int minimum;
+
+        hash    = key.hashCode();
+        minimum = frequency(key);
+
+        if(minimum == MAX_COUNT)
+        {
+            return;
+        }
+
+        for(int row = 0; row < DEPTH; ++row)
+        {
+            final int index;
+
+            index = indexOf(row, hash);
+
+            if(counters[index] == minimum)
+            {
+                counters[index]++;
+            }
+        }
+
+        if(++additions >= sampleSize)
+        {
+            age();
+        }
+    }
+
+    /**
+     * Returns the estimated number of recent occurrences of a key.
+     *
+     * @param key the key to look up
+     * @return the estimate, from 0 to 15
+     */
+    int frequency(final Object key)
+    {
+        final int hash;
+        int       minimum;
+
+        hash    = key.hashCode();
+        minimum = MAX_COUNT;
+
+        for(int row = 0; row < DEPTH; ++row)
+        {
+            minimum = Math.min(minimum, counters[indexOf(row, hash)]);
+        }
+
+        return minimum;
+    }
+
+    /*
+     * Halves every counter so that older occurrences count for less.
+     */
+    private void age()
+    {
+        for(int i = 0; i < counters.length; ++i)
+        {
+            counters[i] >>= 1;
+        }
+
+        additions /= 2;
+    }
+
+    /*
+     * Returns the counter of a key's hash in one row.
+     */
+    private int indexOf(final int row, final int hash)
+    {
+        final int mixed;
+
+        mixed = hash * SEEDS[row];
+
+        return row * (widthMask + 1) + ((mixed ^ (mixed >>> 16)) & widthMask);
+    }
+}
@@ -0,0 +1,174 @@
+package bookstore;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+
+/**
+ * The {@code LatencyHistogram} class counts non-negative latencies in log-linear buckets,
+ * the layout HdrHistogram uses: every power of two is split into sixteen equal
+ * sub-buckets, so any recorded value is reported within about 6% of its true value while
+ * the whole range of a {@code long} fits in under a thousand counters.
+ * <p>
+ * Recording is a single atomic increment and never blocks, so many threads can record
+ * into one histogram at once.
+ *
+ * @version 1.0
+ */
+final class LatencyHistogram
+{
+    private static final int SUB_BUCKET_BITS  = 4;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKET_COUNT     = (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKET_COUNT;
+    private static final int PERCENT          = 100;
+
+    private final AtomicLongArray counts;
+    private final LongAccumulator max;
+
+    /**
+     * Constructs an empty {@code LatencyHistogram}.
+     */
+    LatencyHistogram()
+    {
+        this.counts = new AtomicLongArray(BUCKET_COUNT);
+        this.max    = new LongAccumulator(Math::max, 0L);
+    }
+
+    /**
+     * Counts one value. Negative values are counted as zero.
+     *
+     * @param value the latency to record
+     */
+    void record(final long value)
+    {
+        final long clamped;
+
+        clamped = Math.max(0L, value);
+
+        counts.incrementAndGet(bucketOf(clamped));
+        max.accumulate(clamped);
+    }
+
+    /**
+     * Returns the value at or below which the given percentage of recorded values fall,
+     * rounded up to the top of its bucket and never above the largest value recorded.
+     *
+     * @param percentile the percentage, from 0 to 100
+     * @return the value at that percentile, or 0 if nothing was recorded
+     */
+    long valueAtPercentile(final double percentile)
+    {
+        final long[] snapshot;
+        final long   target;
+        long         total;
+        long         seen;
+
+        snapshot = new long[BUCKET_COUNT];
+        total    = 0;
+
+        for(int i = 0; i < BUCKET_COUNT; ++i)
+        {
+            snapshot[i] = counts.get(i);
+            total      += snapshot[i];
+        }
+
+        if(total == 0)
+        {
+            return 0L;
+        }
+
+        target = Math.max(1L, (long) Math.ceil(total * percentile / PERCENT));
+        seen   = 0;
+
+        for(int i = 0; i < BUCKET_COUNT; ++i)
+        {
+            seen += snapshot[i];
+
+            if(seen >= target)
+            {
+                return Math.min(highestValueIn(i), max());
+            }
+        }
+
+        return max();
+    }
+
+    /**
+     * Returns the number of values recorded.
+     *
+     * @return the total count
+     */
+    long count()
+    {
+        long total;
+
+        total = 0;
+
+        for(int i = 0; i < BUCKET_COUNT; ++i)
+        {
+            total += counts.get(i);
+        }
+
+        return total;
+    }
+
+    /**
+     * Returns the largest value recorded.
+     *
+     * @return the largest value, or 0 if nothing was recorded
+     */
+    long max()
+    {
+        return max.get();
+    }
+
+    /**
+     * Clears every count.
+     */
+    void reset()
+    {
+        for(int i = 0; i < BUCKET_COUNT; ++i)
+        {
+            counts.set(i, 0L);
+        }
+
+        max.reset();
+    }
+
+    /*
+     * Values below SUB_BUCKET_COUNT get a bucket each; above that, the position of the
+     * highest set bit picks the power of two and the next four bits pick the sub-bucket.
+     */
+    private static int bucketOf(final long value)
+    {
+        final int magnitude;
+
+        if(value < SUB_BUCKET_COUNT)
+        {
+            return (int) value;
+        }
+
+        magnitude = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+
+        return (magnitude - SUB_BUCKET_BITS + 1) * SUB_BUCKET_COUNT
+               + (int) ((value >>> (magnitude - SUB_BUCKET_BITS)) & (SUB_BUCKET_COUNT - 1));
+    }
+
+    /*
+     * Returns the largest value that falls into the given bucket.
+     */
+    private static long highestValueIn(final int bucket)
+    {
+        final int  shift;
+        final long lowest;
+
+        if(bucket < SUB_BUCKET_COUNT)
+        {
+            return bucket;
+        }
+
+        shift  = bucket / SUB_BUCKET_COUNT - 1;
+        lowest = (long) (SUB_BUCKET_COUNT + bucket % SUB_BUCKET_COUNT) << shift;
+
+        return lowest + (1L << shift) - 1;
+    }
+}
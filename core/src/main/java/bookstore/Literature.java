@@ -0,0 +1,6 @@
+package bookstore;
+
+public abstract class Literature
+{
+   public abstract String getTitle();
+}
@@ -0,0 +1,130 @@
+package bookstore;
+
+/**
+ * The {@code LiteratureQuery} class describes a question about a collection of literature:
+ * which type of item, what the title contains, and for novels who wrote it and when.
+ * Conditions are combined with AND. Calling {@link #compile()} turns the description into
+ * a {@link CompiledQuery} that can be run many times.
+ * <p>
+ * Author and year conditions only match {@link Novel}s, since other literature has
+ * neither.
+ *
+ * @param <E> the type of literature the query returns
+ *
+ * @version 1.0
+ */
+public final class LiteratureQuery<E extends Literature>
+{
+    private static final int NO_LIMIT = Integer.MAX_VALUE;
+
+    private Class<? extends Literature> type;
+    private String                      titleTerm;
+    private String                      author;
+    private boolean                     hasYearRange;
+    private int                         firstYear;
+    private int                         lastYear;
+    private int                         limit;
+
+    /**
+     * Constructs a {@code LiteratureQuery} that matches every item, without a limit.
+     */
+    public LiteratureQuery()
+    {
+        this.limit = NO_LIMIT;
+    }
+
+    /**
+     * Only matches items of the given type or its subtypes.
+     *
+     * @param type the type of literature to keep
+     * @return this query
+     */
+    public LiteratureQuery<E> ofType(final Class<? extends E> type)
+    {
+        if(type == null)
+        {
+            throw new IllegalArgumentException("Type cannot be null");
+        }
+
+        this.type = type;
+        return this;
+    }
+
+    /**
+     * Only matches items whose title contains the given text, ignoring case.
+     *
+     * @param term the text the title must contain
+     * @return this query
+     */
+    public LiteratureQuery<E> titleContains(final String term)
+    {
+        if(term == null)
+        {
+            throw new IllegalArgumentException("Title term cannot be null");
+        }
+
+        this.titleTerm = term;
+        return this;
+    }
+
+    /**
+     * Only matches novels by the given author.
+     *
+     * @param author the exact author name
+     * @return this query
+     */
+    public LiteratureQuery<E> writtenBy(final String author)
+    {
+        if(author == null)
+        {
+            throw new IllegalArgumentException("Author cannot be null");
+        }
+
+        this.author = author;
+        return this;
+    }
+
+    /**
+     * Only matches novels published between the given years, inclusive.
+     *
+     * @param firstYear the first year of the range
+     * @param lastYear  the last year of the range
+     * @return this query
+     */
+    public LiteratureQuery<E> publishedBetween(final int firstYear,
+                                               final int lastYear)
+    {
+        this.hasYearRange = true;
+        this.firstYear    = firstYear;
+        this.lastYear     = lastYear;
+        return this;
+    }
+
+    /**
+     * Stops after the given number of matches.
+     *
+     * @param limit the largest number of results to return
+     * @return this query
+     */
+    public LiteratureQuery<E> limit(final int limit)
+    {
+        if(limit < 0)
+        {
+            throw new IllegalArgumentException("Limit cannot be negative: " + limit);
+        }
+
+        this.limit = limit;
+        return this;
+    }
+
+    /**
+     * Compiles the query into a plan that checks every condition in a single pass.
+     * Later changes to this query do not affect the compiled plan.
+     *
+     * @return the compiled query
+     */
+    public CompiledQuery<E> compile()
+    {
+        return new CompiledQuery<>(type, titleTerm, author, hasYearRange, firstYear, lastYear, limit);
+    }
+}
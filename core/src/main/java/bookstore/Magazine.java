@@ -1,3 +1,5 @@
+package bookstore;
+
 public class Magazine extends Literature
 {
     private final String title;
@@ -0,0 +1,33 @@
+package bookstore;
+
+import java.util.Map;
+
+/**
+ * The {@code NoOpQueryMetrics} class is the {@link QueryMetrics} used when instrumentation
+ * is off. Every method does nothing, so calls to it compile away once inlined.
+ *
+ * @version 1.0
+ */
+final class NoOpQueryMetrics implements QueryMetrics
+{
+    @Override
+    public long start()
+    {
+        return 0L;
+    }
+
+    @Override
+    public void record(final QueryOperation operation,
+                       final long           start,
+                       final int            scanned,
+                       final int            skipped,
+                       final int            results)
+    {
+    }
+
+    @Override
+    public Map<QueryOperation, OperationStats> snapshot()
+    {
+        return Map.of();
+    }
+}
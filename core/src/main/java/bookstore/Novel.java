@@ -1,9 +1,18 @@
+package bookstore;
+
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
 
 /**
  * The {@code Novel} class represents a novel with a title, author, and year of publication.
  * It also implements the {@link Comparable} interface to allow comparison between novels based on their titles.
+ * <p>
+ * A {@link BookStore} keeps only each novel's title, author and year, in a {@link NovelTable},
+ * and returns a new {@code Novel} made from those columns whenever one is read. Novels are
+ * therefore equal when their title, author and year are, and a subclass stocked in a store
+ * comes back as a plain {@code Novel}.
  *
  * @author Richard Ho
  * @author Bryson Lindy
@@ -233,11 +242,15 @@ public class Novel extends Literature implements Comparable<Novel>
     };
 
     private final String title;
+    private final String foldedTitle;
     private final String author;
     private final int    yearPublished;
 
     /**
      * Constructs a new {@code Novel} instance with the specified title, author, and year of publication.
+     * The case-folded title used for searching and sorting is computed once here, and the
+     * author is interned with {@link String#intern()}, so every novel by the same author
+     * shares one name, and the JVM can drop a name once no novel refers to it.
      *
      * @param title         the title of the novel
      * @param author        the author of the novel
@@ -247,11 +260,60 @@ public class Novel extends Literature implements Comparable<Novel>
                  final String  author,
                  final int     yearPublished)
     {
+        validateTitle(title);
+
         this.title         = title;
+        this.foldedTitle   = foldTitle(title);
+        this.author        = author == null ? null : author.intern();
+        this.yearPublished = yearPublished;
+    }
+
+    /**
+     * Constructs a {@code Novel} from the columns of a {@link NovelTable} row. The title is
+     * already folded and the author already shared by every row that names it, so neither
+     * is computed again.
+     *
+     * @param title         the title of the novel
+     * @param foldedTitle   the title as folded by {@link #foldTitle(String)}
+     * @param author        the shared author string, or null
+     * @param yearPublished the year the novel was published
+     */
+    Novel(final String title,
+          final String foldedTitle,
+          final String author,
+          final int    yearPublished)
+    {
+        this.title         = title;
+        this.foldedTitle   = foldedTitle;
         this.author        = author;
         this.yearPublished = yearPublished;
     }
 
+    /*
+    Checks to make sure the title is not null.
+     */
+    private static void validateTitle(final String title)
+    {
+        if(title == null)
+        {
+            throw new IllegalArgumentException("Title cannot be null");
+        }
+    }
+
+    /**
+     * Case-folds a title or a search query. Queries folded here can be passed to
+     * {@link #titleContains(String)} and compared with {@link #getFoldedTitle()}.
+     * Folding uses the root locale, so sorting and matching do not change with the
+     * default locale, as {@code "I"} and {@code "\u0131"} would under a Turkish one.
+     *
+     * @param text the text to fold
+     * @return the case-folded text
+     */
+    public static String foldTitle(final String text)
+    {
+        return text.toLowerCase(Locale.ROOT);
+    }
+
     /**
      * Creates a list of {@code Novel} objects using the predefined arrays of titles, authors, and publication years.
      *
@@ -281,6 +343,29 @@ public class Novel extends Literature implements Comparable<Novel>
         return title;
     }
 
+    /**
+     * Gets the case-folded title computed when the novel was created.
+     *
+     * @return the title as folded by {@link #foldTitle(String)}
+     */
+    public String getFoldedTitle()
+    {
+        return foldedTitle;
+    }
+
+    /**
+     * Returns whether the title contains the given query, ignoring case. The query must
+     * already be folded with {@link #foldTitle(String)}; fold it once and reuse it across
+     * novels, and no string is created per call.
+     *
+     * @param foldedQuery the folded text to look for
+     * @return true if the title contains the query, ignoring case
+     */
+    public boolean titleContains(final String foldedQuery)
+    {
+        return foldedTitle.contains(foldedQuery);
+    }
+
     /**
      * Gets the author of the novel.
      *
@@ -303,6 +388,7 @@ public class Novel extends Literature implements Comparable<Novel>
 
     /**
      * Compares this novel with the specified novel for order based on the title, ignoring case considerations.
+     * The precomputed folded titles are compared, so no case conversion happens per comparison.
      *
      * @param that the novel to be compared
      * @return     a negative integer, zero, or a positive integer as this novel's title is lexicographically less
@@ -311,7 +397,49 @@ public class Novel extends Literature implements Comparable<Novel>
     @Override
     public int compareTo(final Novel that)
     {
-        return this.title.compareToIgnoreCase(that.getTitle());
+        return this.foldedTitle.compareTo(that.foldedTitle);
+    }
+
+    /**
+     * Returns whether another object is a novel with the same title, author and year. A
+     * store keeps only those three columns and hands out a new {@code Novel} each time one
+     * is read, so novels are compared by value rather than by identity.
+     *
+     * @param obj the object to compare with
+     * @return true if obj is a novel with the same title, author and year of publication
+     */
+    @Override
+    public boolean equals(final Object obj)
+    {
+        final Novel that;
+
+        if(this == obj)
+        {
+            return true;
+        }
+
+        if(obj == null || getClass() != obj.getClass())
+        {
+            return false;
+        }
+
+        that = (Novel) obj;
+
+        return yearPublished == that.yearPublished &&
+               title.equals(that.title) &&
+               Objects.equals(author, that.author);
+    }
+
+    /**
+     * Returns a hash code computed from the title, author and year, consistent with
+     * {@link #equals(Object)}.
+     *
+     * @return the hash code of this novel
+     */
+    @Override
+    public int hashCode()
+    {
+        return Objects.hash(title, author, yearPublished);
     }
 
     /**
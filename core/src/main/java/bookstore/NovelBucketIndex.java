@@ -0,0 +1,253 @@
+package bookstore;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * The {@code NovelBucketIndex} class buckets the rows of a {@link NovelTable} by a small
+ * non-negative {@code int} key, such as the length of the title or the author id, in an
+ * array indexed by key, and tracks the largest key in use. Rows whose key is negative
+ * are not indexed.
+ * <p>
+ * Each bucket is a growable {@code int[]} of rows with spare capacity, so adding a row
+ * appends in amortized constant time. {@link #bucket(int)} hands out a view of the
+ * filled prefix and marks the bucket published. Appending only writes past that prefix,
+ * so a view never changes afterwards; removing from a published bucket copies it first,
+ * and removing from an unpublished one shifts it in place. Rows in a bucket stay in
+ * ascending order, which is catalog order.
+ * <p>
+ * Callers serialize changes with the store's write lock and read under its read lock.
+ *
+ * @version 1.0
+ */
+final class NovelBucketIndex
+{
+    private static final int[] EMPTY_BUCKET     = new int[0];
+    private static final int   INITIAL_CAPACITY = 64;
+    private static final int   MIN_BUCKET       = 4;
+    private static final int   GROWTH_FACTOR    = 2;
+
+    private final NovelTable       table;
+    private final IntUnaryOperator key;
+    private int[][]                buckets;
+    private int[]                  sizes;
+    private boolean[]              published;
+    private int                    maxKey;
+
+    /**
+     * Constructs a {@code NovelBucketIndex} containing every live row of the table.
+     *
+     * @param table the table to index
+     * @param key   computes the bucket of a row
+     */
+    NovelBucketIndex(final NovelTable       table,
+                     final IntUnaryOperator key)
+    {
+        final int[] live;
+        final int[] keys;
+        final int[] counts;
+
+        this.table  = table;
+        this.key    = key;
+        this.maxKey = -1;
+
+        live = table.liveRows();
+        keys = new int[live.length];
+
+        for(int i = 0; i < live.length; ++i)
+        {
+            keys[i] = key.applyAsInt(live[i]);
+            maxKey  = Math.max(maxKey, keys[i]);
+        }
+
+        buckets   = new int[Math.max(INITIAL_CAPACITY, maxKey + 1)][];
+        sizes     = new int[buckets.length];
+        published = new boolean[buckets.length];
+        counts    = new int[buckets.length];
+
+        Arrays.fill(buckets, EMPTY_BUCKET);
+
+        for(int bucketKey : keys)
+        {
+            if(bucketKey >= 0)
+            {
+                counts[bucketKey]++;
+            }
+        }
+
+        for(int bucketKey = 0; bucketKey <= maxKey; ++bucketKey)
+        {
+            if(counts[bucketKey] > 0)
+            {
+                buckets[bucketKey] = new int[counts[bucketKey]];
+            }
+        }
+
+        for(int i = 0; i < live.length; ++i)
+        {
+            if(keys[i] >= 0)
+            {
+                buckets[keys[i]][sizes[keys[i]]++] = live[i];
+            }
+        }
+    }
+
+    /**
+     * Adds a row after every indexed row in the same bucket. The row must be newer than
+     * every row already indexed.
+     *
+     * @param row the row to add
+     */
+    void add(final int row)
+    {
+        final int bucketKey;
+
+        bucketKey = key.applyAsInt(row);
+
+        if(bucketKey < 0)
+        {
+            return;
+        }
+
+        if(bucketKey >= buckets.length)
+        {
+            final int oldCapacity;
+            final int newCapacity;
+
+            oldCapacity = buckets.length;
+            newCapacity = Math.max(bucketKey + 1, oldCapacity * GROWTH_FACTOR);
+            buckets     = Arrays.copyOf(buckets, newCapacity);
+            sizes       = Arrays.copyOf(sizes, newCapacity);
+            published   = Arrays.copyOf(published, newCapacity);
+
+            Arrays.fill(buckets, oldCapacity, newCapacity, EMPTY_BUCKET);
+        }
+
+        if(sizes[bucketKey] == buckets[bucketKey].length)
+        {
+            // the old array stays behind any view already handed out
+            buckets[bucketKey]   = Arrays.copyOf(buckets[bucketKey], Math.max(MIN_BUCKET, sizes[bucketKey] * GROWTH_FACTOR));
+            published[bucketKey] = false;
+        }
+
+        buckets[bucketKey][sizes[bucketKey]++] = row;
+        maxKey                                 = Math.max(maxKey, bucketKey);
+    }
+
+    /**
+     * Removes a row from the index.
+     *
+     * @param row the row to remove
+     * @return true if the row was indexed
+     */
+    boolean remove(final int row)
+    {
+        final int   bucketKey;
+        final int[] bucket;
+        final int   size;
+        final int   position;
+
+        bucketKey = key.applyAsInt(row);
+
+        if(bucketKey < 0 || bucketKey >= buckets.length)
+        {
+            return false;
+        }
+
+        bucket   = buckets[bucketKey];
+        size     = sizes[bucketKey];
+        position = Arrays.binarySearch(bucket, 0, size, row);
+
+        if(position < 0)
+        {
+            return false;
+        }
+
+        if(size == 1)
+        {
+            buckets[bucketKey] = EMPTY_BUCKET;
+        }
+        else if(published[bucketKey])
+        {
+            final int[] copy;
+
+            copy = new int[bucket.length];
+
+            System.arraycopy(bucket, 0, copy, 0, position);
+            System.arraycopy(bucket, position + 1, copy, position, size - position - 1);
+
+            buckets[bucketKey] = copy;
+        }
+        else
+        {
+            System.arraycopy(bucket, position + 1, bucket, position, size - position - 1);
+        }
+
+        sizes[bucketKey]     = size - 1;
+        published[bucketKey] = false;
+
+        while(maxKey >= 0 && sizes[maxKey] == 0)
+        {
+            maxKey--;
+        }
+
+        return true;
+    }
+
+    /**
+     * Returns the novels in the given bucket, made from their rows as they are read. The
+     * bucket is copied before it is next changed in place, so the view stays as it is now.
+     *
+     * @param bucketKey the key to look up
+     * @return an unmodifiable view of the bucket, in catalog order
+     */
+    List<Novel> bucket(final int bucketKey)
+    {
+        if(bucketKey < 0 || bucketKey > maxKey || sizes[bucketKey] == 0)
+        {
+            return List.of();
+        }
+
+        published[bucketKey] = true;
+
+        return table.novels(buckets[bucketKey], sizes[bucketKey]);
+    }
+
+    /**
+     * Returns a copy of the rows in the given bucket.
+     *
+     * @param bucketKey the key to look up
+     * @return a new array of the bucket's rows, in catalog order
+     */
+    int[] rows(final int bucketKey)
+    {
+        if(bucketKey < 0 || bucketKey > maxKey)
+        {
+            return EMPTY_BUCKET;
+        }
+
+        return Arrays.copyOf(buckets[bucketKey], sizes[bucketKey]);
+    }
+
+    /**
+     * Returns the number of rows in the given bucket.
+     *
+     * @param bucketKey the key to look up
+     * @return the size of the bucket
+     */
+    int count(final int bucketKey)
+    {
+        return bucketKey < 0 || bucketKey > maxKey ? 0 : sizes[bucketKey];
+    }
+
+    /**
+     * Returns the first row in the bucket with the largest key.
+     *
+     * @return the first row with the largest key, or {@link NovelTable#NO_ROW} if the index is empty
+     */
+    int firstOfLargestKey()
+    {
+        return maxKey < 0 ? NovelTable.NO_ROW : buckets[maxKey][0];
+    }
+}
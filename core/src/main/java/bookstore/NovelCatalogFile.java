@@ -0,0 +1,486 @@
+package bookstore;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+
+/**
+ * The {@code NovelCatalogFile} class reads and writes a compact binary catalog of novels.
+ * <p>
+ * A catalog file holds, in order:
+ * <ul>
+ *     <li>a header: magic number, format version and row count, as {@code int}s</li>
+ *     <li>five fixed-width {@code int} columns of one entry per row: year published,
+ *         title offset, title length, author offset and author length</li>
+ *     <li>a string heap of UTF-8 bytes addressed by those offsets, in which each distinct
+ *         author is stored once</li>
+ * </ul>
+ * {@link #open(Path)} maps the file with {@link FileChannel#map} and returns it as an
+ * immutable {@link List} of novels. Nothing is copied onto the heap when the file is
+ * opened; a row is only decoded when it is read. A single file is limited to 2 GiB, the
+ * most one mapping can address.
+ *
+ * @version 1.0
+ */
+public final class NovelCatalogFile extends AbstractList<Novel> implements RandomAccess
+{
+    private static final int MAGIC          = 0x4E4F564C;
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_BYTES   = 3 * Integer.BYTES;
+    private static final int COLUMN_COUNT   = 5;
+    private static final int YEAR_COLUMN    = 0;
+    private static final int TITLE_OFFSET   = 1;
+    private static final int TITLE_LENGTH   = 2;
+    private static final int AUTHOR_OFFSET  = 3;
+    private static final int AUTHOR_LENGTH  = 4;
+    private static final int WRITE_BUFFER   = 1 << 16;
+
+    private final MappedByteBuffer buffer;
+    private final int              rowCount;
+    private final int              heapStart;
+
+    /*
+     * Wraps a mapped catalog whose header has already been validated.
+     */
+    private NovelCatalogFile(final MappedByteBuffer buffer,
+                             final int              rowCount)
+    {
+        this.buffer    = buffer;
+        this.rowCount  = rowCount;
+        this.heapStart = (int) columnsEnd(rowCount);
+    }
+
+    /**
+     * Writes the given novels to a catalog file, replacing any existing file. Every row is
+     * checked before anything is written, and the catalog is written to a temporary file
+     * in the same directory that is then moved over the target in one step, so a failed
+     * write never leaves a truncated catalog behind.
+     *
+     * @param file   the file to write
+     * @param novels the novels to store, in order
+     * @throws IOException if the file cannot be written or the catalog exceeds 2 GiB
+     */
+    public static void write(final Path        file,
+                             final List<Novel> novels) throws IOException
+    {
+        final Path directory;
+        final Path temporary;
+        boolean    moved;
+
+        validateRows(novels);
+
+        directory = file.toAbsolutePath().getParent();
+        temporary = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+        moved     = false;
+
+        try
+        {
+            writeRows(temporary, novels);
+            Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            moved = true;
+        }
+        finally
+        {
+            if(!moved)
+            {
+                Files.deleteIfExists(temporary);
+            }
+        }
+    }
+
+    /*
+     * Checks that every row can be stored: a catalog row needs a novel with an author.
+     */
+    private static void validateRows(final List<Novel> novels)
+    {
+        if(novels == null)
+        {
+            throw new IllegalArgumentException("Novels cannot be null");
+        }
+
+        for(Novel novel : novels)
+        {
+            if(novel == null)
+            {
+                throw new IllegalArgumentException("Catalog rows cannot be null");
+            }
+
+            if(novel.getAuthor() == null)
+            {
+                throw new IllegalArgumentException("Catalog novels must have an author: " + novel.getTitle());
+            }
+        }
+    }
+
+    /*
+     * Writes the validated novels to the given file: the string heap first, behind room
+     * for the columns, then the header and columns once every offset is known.
+     */
+    private static void writeRows(final Path        file,
+                                  final List<Novel> novels) throws IOException
+    {
+        final int                  rowCount;
+        final int[][]              columns;
+        final Map<String, Integer> firstRowOfAuthor;
+        final ByteBuffer           heapBuffer;
+        final long                 heapStart;
+        long                       heapPosition;
+
+        rowCount         = novels.size();
+        columns          = new int[COLUMN_COUNT][rowCount];
+        firstRowOfAuthor = new HashMap<>();
+        heapBuffer       = ByteBuffer.allocate(WRITE_BUFFER);
+        heapStart        = columnsEnd(rowCount);
+        heapPosition     = 0;
+
+        try(FileChannel channel = FileChannel.open(file,
+                                                   StandardOpenOption.CREATE,
+                                                   StandardOpenOption.WRITE,
+                                                   StandardOpenOption.TRUNCATE_EXISTING))
+        {
+            checkSize(heapStart);
+            channel.position(heapStart);
+
+            for(int row = 0; row < rowCount; ++row)
+            {
+                final Novel   novel;
+                final byte[]  title;
+                final String  author;
+                final Integer knownAuthor;
+
+                novel  = novels.get(row);
+                title  = novel.getTitle().getBytes(StandardCharsets.UTF_8);
+                author = novel.getAuthor();
+
+                columns[YEAR_COLUMN][row]  = novel.getYearPublished();
+                columns[TITLE_OFFSET][row] = (int) heapPosition;
+                columns[TITLE_LENGTH][row] = title.length;
+                heapPosition              += appendToHeap(channel, heapBuffer, title);
+                checkSize(heapStart + heapPosition);
+
+                knownAuthor = firstRowOfAuthor.putIfAbsent(author, row);
+
+                if(knownAuthor == null)
+                {
+                    final byte[] authorBytes;
+
+                    authorBytes = author.getBytes(StandardCharsets.UTF_8);
+
+                    columns[AUTHOR_OFFSET][row] = (int) heapPosition;
+                    columns[AUTHOR_LENGTH][row] = authorBytes.length;
+                    heapPosition               += appendToHeap(channel, heapBuffer, authorBytes);
+                    checkSize(heapStart + heapPosition);
+                }
+                else
+                {
+                    columns[AUTHOR_OFFSET][row] = columns[AUTHOR_OFFSET][knownAuthor];
+                    columns[AUTHOR_LENGTH][row] = columns[AUTHOR_LENGTH][knownAuthor];
+                }
+            }
+
+            flush(channel, heapBuffer);
+            writeHeaderAndColumns(channel, rowCount, columns);
+        }
+    }
+
+    /**
+     * Opens a catalog file by mapping it into memory. Rows are read lazily from the mapping.
+     *
+     * @param file the catalog file to open
+     * @return the catalog as an immutable list of novels
+     * @throws IOException if the file cannot be read or is not a valid catalog
+     */
+    public static NovelCatalogFile open(final Path file) throws IOException
+    {
+        final MappedByteBuffer buffer;
+        final int              rowCount;
+
+        try(FileChannel channel = FileChannel.open(file, StandardOpenOption.READ))
+        {
+            if(channel.size() > Integer.MAX_VALUE)
+            {
+                throw new IOException("Catalog file is larger than 2 GiB: " + file);
+            }
+
+            if(channel.size() < HEADER_BYTES)
+            {
+                throw new IOException("Not a novel catalog: " + file);
+            }
+
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+
+        if(buffer.getInt(0) != MAGIC)
+        {
+            throw new IOException("Not a novel catalog: " + file);
+        }
+
+        if(buffer.getInt(Integer.BYTES) != FORMAT_VERSION)
+        {
+            throw new IOException("Unsupported catalog version " + buffer.getInt(Integer.BYTES) + ": " + file);
+        }
+
+        rowCount = buffer.getInt(2 * Integer.BYTES);
+
+        if(rowCount < 0 || columnsEnd(rowCount) > buffer.capacity())
+        {
+            throw new IOException("Corrupt catalog header: " + file);
+        }
+
+        return new NovelCatalogFile(buffer, rowCount);
+    }
+
+    /**
+     * Copies every row into a new {@link NovelTable}, in order. Each title is decoded once
+     * straight into the table's columns, and each distinct author once however many rows
+     * name it, so no {@code Novel} is made along the way.
+     *
+     * @return a table holding every row of the catalog
+     */
+    NovelTable toTable()
+    {
+        final NovelTable           table;
+        final Map<Integer, String> authorsByOffset;
+
+        table           = new NovelTable(rowCount);
+        authorsByOffset = new HashMap<>();
+
+        for(int row = 0; row < rowCount; ++row)
+        {
+            final String title;
+            final int    authorOffset;
+            String       author;
+
+            title        = titleAt(row);
+            authorOffset = column(AUTHOR_OFFSET, row);
+            author       = authorsByOffset.get(authorOffset);
+
+            // rows by the same author share its bytes in the heap, so the offset identifies it
+            if(author == null)
+            {
+                author = decode(authorOffset, column(AUTHOR_LENGTH, row));
+                authorsByOffset.put(authorOffset, author);
+            }
+
+            table.add(title, Novel.foldTitle(title), author, yearAt(row));
+        }
+
+        return table;
+    }
+
+    /**
+     * Decodes the given row into a {@code Novel}.
+     *
+     * @param row the row to read
+     * @return a novel holding the row's title, author and year
+     */
+    @Override
+    public Novel get(final int row)
+    {
+        return new Novel(titleAt(row), authorAt(row), yearAt(row));
+    }
+
+    /**
+     * Returns the number of rows in the catalog.
+     *
+     * @return the number of novels stored
+     */
+    @Override
+    public int size()
+    {
+        return rowCount;
+    }
+
+    /**
+     * Returns the year of publication of the given row, read directly from the mapping.
+     *
+     * @param row the row to read
+     * @return the year the row's novel was published
+     */
+    public int yearAt(final int row)
+    {
+        return column(YEAR_COLUMN, row);
+    }
+
+    /**
+     * Decodes the title of the given row.
+     *
+     * @param row the row to read
+     * @return the row's title
+     */
+    public String titleAt(final int row)
+    {
+        return decode(column(TITLE_OFFSET, row), column(TITLE_LENGTH, row));
+    }
+
+    /**
+     * Decodes the author of the given row.
+     *
+     * @param row the row to read
+     * @return the row's author
+     */
+    public String authorAt(final int row)
+    {
+        return decode(column(AUTHOR_OFFSET, row), column(AUTHOR_LENGTH, row));
+    }
+
+    /*
+     * Reads one entry of a fixed-width column.
+     */
+    private int column(final int column, final int row)
+    {
+        if(row < 0 || row >= rowCount)
+        {
+            throw new IndexOutOfBoundsException("Row " + row + " out of " + rowCount);
+        }
+
+        return buffer.getInt(HEADER_BYTES + (column * rowCount + row) * Integer.BYTES);
+    }
+
+    /*
+     * Decodes a UTF-8 string from the heap.
+     */
+    private String decode(final int offset, final int length)
+    {
+        final byte[] bytes;
+
+        bytes = new byte[length];
+        buffer.get(heapStart + offset, bytes);
+
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /*
+     * Returns the file position where the string heap starts.
+     */
+    private static long columnsEnd(final int rowCount)
+    {
+        return HEADER_BYTES + (long) COLUMN_COUNT * rowCount * Integer.BYTES;
+    }
+
+    /*
+     * Fails once a catalog being written outgrows what one mapping can address.
+     */
+    private static void checkSize(final long fileSize) throws IOException
+    {
+        if(fileSize > Integer.MAX_VALUE)
+        {
+            throw new IOException("Catalog would be larger than 2 GiB");
+        }
+    }
+
+    /*
+     * Buffers bytes for the heap, writing the buffer out whenever it fills.
+     */
+    private static int appendToHeap(final FileChannel channel,
+                                    final ByteBuffer  heapBuffer,
+                                    final byte[]      bytes) throws IOException
+    {
+        int written;
+
+        written = 0;
+
+        while(written < bytes.length)
+        {
+            final int chunk;
+
+            if(!heapBuffer.hasRemaining())
+            {
+                flush(channel, heapBuffer);
+            }
+
+            chunk = Math.min(heapBuffer.remaining(), bytes.length - written);
+            heapBuffer.put(bytes, written, chunk);
+            written += chunk;
+        }
+
+        return bytes.length;
+    }
+
+    /*
+     * Writes out everything buffered so far.
+     */
+    private static void flush(final FileChannel channel, final ByteBuffer heapBuffer) throws IOException
+    {
+        heapBuffer.flip();
+
+        while(heapBuffer.hasRemaining())
+        {
+            channel.write(heapBuffer);
+        }
+
+        heapBuffer.clear();
+    }
+
+    /*
+     * Writes the header and the fixed-width columns at the start of the file.
+     */
+    private static void writeHeaderAndColumns(final FileChannel channel,
+                                              final int         rowCount,
+                                              final int[][]     columns) throws IOException
+    {
+        final ByteBuffer header;
+        final ByteBuffer columnBuffer;
+        long             position;
+
+        header = ByteBuffer.allocate(HEADER_BYTES);
+        header.putInt(MAGIC).putInt(FORMAT_VERSION).putInt(rowCount).flip();
+
+        position = 0;
+
+        while(header.hasRemaining())
+        {
+            position += channel.write(header, position);
+        }
+
+        columnBuffer = ByteBuffer.allocate(WRITE_BUFFER);
+
+        for(int[] column : columns)
+        {
+            for(int value : column)
+            {
+                if(!columnBuffer.hasRemaining())
+                {
+                    position += writeAt(channel, columnBuffer, position);
+                }
+
+                columnBuffer.putInt(value);
+            }
+        }
+
+        writeAt(channel, columnBuffer, position);
+    }
+
+    /*
+     * Writes out everything buffered so far at the given position and returns the byte count.
+     */
+    private static int writeAt(final FileChannel channel,
+                               final ByteBuffer  columnBuffer,
+                               final long        position) throws IOException
+    {
+        int written;
+
+        columnBuffer.flip();
+        written = 0;
+
+        while(columnBuffer.hasRemaining())
+        {
+            written += channel.write(columnBuffer, position + written);
+        }
+
+        columnBuffer.clear();
+
+        return written;
+    }
+}
@@ -0,0 +1,742 @@
+package bookstore;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * The {@code NovelTable} class stores a {@link BookStore}'s novels column by column
+ * instead of as individual objects. Years live in one {@code int[]}, authors are
+ * dictionary encoded as {@code int} ids, and every title is packed into one shared
+ * {@code char[]} addressed by offsets, next to a second buffer of the case-folded titles
+ * that searching and sorting compare.
+ * <p>
+ * Every novel is a row, numbered in the order rows were added, so catalog order is row
+ * order. Rows are never changed or moved: removing a novel only marks its row dead, and
+ * {@link #compacted()} copies the live rows into a new table once enough have died.
+ * Indexes therefore hold row numbers instead of novels, and the column accessors read a
+ * row without creating any object.
+ * <p>
+ * A {@code Novel} is only created when a caller asks for one, through
+ * {@link #novelAt(int)} or the lists returned by {@link #novels(int[], int)}. Those lists
+ * read the columns as they were when the list was made; rows added later are written
+ * past the end of what they read, so they stay valid after the table changes. Every
+ * novel made for the same author shares the dictionary's string.
+ * <p>
+ * The table is not thread-safe; its store changes it under the write lock and reads it
+ * under the read lock.
+ *
+ * @version 1.0
+ */
+final class NovelTable
+{
+    /**
+     * The row number that stands for no row.
+     */
+    static final int NO_ROW = -1;
+
+    private static final int MIN_CAPACITY  = 16;
+    private static final int MIN_CHARS     = 256;
+    private static final int GROWTH_FACTOR = 2;
+
+    private final AuthorDictionary authors;
+    private final BitSet           dead;
+    private Columns                columns;
+    private int                    rowCount;
+    private int                    deadCount;
+
+    /**
+     * Constructs an empty {@code NovelTable} with room for the expected number of rows.
+     *
+     * @param expectedRows the number of rows expected
+     */
+    NovelTable(final int expectedRows)
+    {
+        final int capacity;
+
+        capacity = Math.max(MIN_CAPACITY, expectedRows);
+
+        this.authors = new AuthorDictionary();
+        this.dead    = new BitSet();
+        this.columns = new Columns(new int[capacity],
+                                   new int[capacity],
+                                   authors.names(),
+                                   new char[MIN_CHARS],
+                                   new int[capacity + 1],
+                                   new char[MIN_CHARS],
+                                   new int[capacity + 1]);
+    }
+
+    /**
+     * Appends a novel as a new row after every existing row.
+     *
+     * @param novel the novel to store
+     * @return the new row's number
+     */
+    int add(final Novel novel)
+    {
+        return add(novel.getTitle(), novel.getFoldedTitle(), novel.getAuthor(), novel.getYearPublished());
+    }
+
+    /**
+     * Appends a row holding the given fields after every existing row, without a
+     * {@code Novel} to read them from.
+     *
+     * @param title  the title
+     * @param folded the title as folded by {@link Novel#foldTitle(String)}
+     * @param author the author, or null
+     * @param year   the year of publication
+     * @return the new row's number
+     */
+    int add(final String title,
+            final String folded,
+            final String author,
+            final int    year)
+    {
+        final int row;
+        final int authorId;
+        Columns   current;
+
+        row      = rowCount;
+        authorId = authors.intern(author);
+        current  = columns;
+
+        if(row == current.years().length)
+        {
+            final int capacity;
+
+            capacity = Math.multiplyExact(row, GROWTH_FACTOR);
+            current  = new Columns(Arrays.copyOf(current.years(), capacity),
+                                   Arrays.copyOf(current.authorIds(), capacity),
+                                   current.authorNames(),
+                                   current.titleChars(),
+                                   Arrays.copyOf(current.titleOffsets(), capacity + 1),
+                                   current.foldedChars(),
+                                   Arrays.copyOf(current.foldedOffsets(), capacity + 1));
+        }
+
+        current = new Columns(current.years(),
+                              current.authorIds(),
+                              authors.names(),
+                              append(current.titleChars(), current.titleOffsets(), row, title),
+                              current.titleOffsets(),
+                              append(current.foldedChars(), current.foldedOffsets(), row, folded),
+                              current.foldedOffsets());
+
+        current.years()[row]     = year;
+        current.authorIds()[row] = authorId;
+        columns                  = current;
+        rowCount++;
+
+        return row;
+    }
+
+    /*
+     * Writes text after the given row's start in a character buffer, growing the buffer
+     * if it is full, records where the row ends, and returns the buffer written to.
+     */
+    private static char[] append(final char[] buffer,
+                                 final int[]  offsets,
+                                 final int    row,
+                                 final String text)
+    {
+        final int start;
+        final int end;
+        char[]    target;
+
+        start  = offsets[row];
+        end    = Math.addExact(start, text.length());
+        target = buffer;
+
+        if(end > target.length)
+        {
+            target = Arrays.copyOf(target, Math.max(end, (int) Math.min(Integer.MAX_VALUE - 8L,
+                                                                        (long) target.length * GROWTH_FACTOR)));
+        }
+
+        text.getChars(0, text.length(), target, start);
+        offsets[row + 1] = end;
+
+        return target;
+    }
+
+    /**
+     * Marks a row dead. Its columns stay as they are, so novels already made from it, and
+     * lists already handed out, are unaffected.
+     *
+     * @param row the row to remove
+     */
+    void remove(final int row)
+    {
+        if(!dead.get(row))
+        {
+            dead.set(row);
+            deadCount++;
+        }
+    }
+
+    /**
+     * Returns whether a row holds a stocked novel.
+     *
+     * @param row the row to check
+     * @return true unless the row was removed
+     */
+    boolean isLive(final int row)
+    {
+        return !dead.get(row);
+    }
+
+    /**
+     * Returns the number of rows ever added, live or dead. Every row number is below it.
+     *
+     * @return the number of rows
+     */
+    int rowCount()
+    {
+        return rowCount;
+    }
+
+    /**
+     * Returns the number of live rows.
+     *
+     * @return the number of stocked novels
+     */
+    int size()
+    {
+        return rowCount - deadCount;
+    }
+
+    /**
+     * Returns the number of dead rows still taking up space.
+     *
+     * @return the number of removed rows
+     */
+    int deadCount()
+    {
+        return deadCount;
+    }
+
+    /**
+     * Returns every live row, in catalog order.
+     *
+     * @return the live row numbers, ascending
+     */
+    int[] liveRows()
+    {
+        final int[] rows;
+        int         count;
+
+        rows  = new int[size()];
+        count = 0;
+
+        for(int row = 0; row < rowCount; ++row)
+        {
+            if(!dead.get(row))
+            {
+                rows[count++] = row;
+            }
+        }
+
+        return rows;
+    }
+
+    /**
+     * Copies the live rows, in order, into a new table with a fresh author dictionary.
+     * Row numbers change, so every index over this table must be rebuilt.
+     *
+     * @return a table holding only the live rows
+     */
+    NovelTable compacted()
+    {
+        final NovelTable copy;
+
+        copy = new NovelTable(size());
+
+        for(int row = 0; row < rowCount; ++row)
+        {
+            if(!dead.get(row))
+            {
+                copy.add(novelAt(row));
+            }
+        }
+
+        return copy;
+    }
+
+    /**
+     * Makes a {@code Novel} from a row.
+     *
+     * @param row the row to read
+     * @return a novel holding the row's title, author and year
+     */
+    Novel novelAt(final int row)
+    {
+        return columns.novelAt(row);
+    }
+
+    /**
+     * Returns an unmodifiable list of the given rows as novels. A novel is made each time
+     * an element is read, and the list reads the columns as they are now.
+     *
+     * @param rows the rows to list, or null for the rows from zero up to size
+     * @param size the number of rows to list
+     * @return a list of novels made on demand
+     */
+    List<Novel> novels(final int[] rows, final int size)
+    {
+        final Columns snapshot;
+
+        if(size == 0)
+        {
+            return List.of();
+        }
+
+        snapshot = columns;
+
+        return new RowList<>(rows, size)
+        {
+            @Override
+            public Novel get(final int index)
+            {
+                return snapshot.novelAt(rowAt(index));
+            }
+        };
+    }
+
+    /**
+     * Returns every live row as a list of novels, in catalog order.
+     *
+     * @return a list of novels made on demand
+     */
+    List<Novel> novels()
+    {
+        return deadCount == 0 ? novels(null, rowCount) : novels(liveRows(), size());
+    }
+
+    /**
+     * Returns an unmodifiable list of the titles of the given rows. A title is made each
+     * time an element is read.
+     *
+     * @param rows the rows to list, or null for the rows from zero up to size
+     * @param size the number of rows to list
+     * @return a list of titles made on demand
+     */
+    List<String> titles(final int[] rows, final int size)
+    {
+        final Columns snapshot;
+
+        if(size == 0)
+        {
+            return List.of();
+        }
+
+        snapshot = columns;
+
+        return new RowList<>(rows, size)
+        {
+            @Override
+            public String get(final int index)
+            {
+                return snapshot.titleAt(rowAt(index));
+            }
+        };
+    }
+
+    /**
+     * Returns the title of every live row, in catalog order.
+     *
+     * @return a list of titles made on demand
+     */
+    List<String> titles()
+    {
+        return deadCount == 0 ? titles(null, rowCount) : titles(liveRows(), size());
+    }
+
+    /**
+     * Returns the year of publication stored in a row.
+     *
+     * @param row the row to read
+     * @return the year the row's novel was published
+     */
+    int yearAt(final int row)
+    {
+        return columns.years()[row];
+    }
+
+    /**
+     * Returns the dictionary id of the author stored in a row. Rows by the same author
+     * share the same id.
+     *
+     * @param row the row to read
+     * @return the author id, or {@link AuthorDictionary#NO_AUTHOR} if the novel has no author
+     */
+    int authorIdAt(final int row)
+    {
+        return columns.authorIds()[row];
+    }
+
+    /**
+     * Returns the author stored in a row.
+     *
+     * @param row the row to read
+     * @return the shared author string, or null if the novel has no author
+     */
+    String authorAt(final int row)
+    {
+        return columns.authorAt(row);
+    }
+
+    /**
+     * Returns the dictionary id of an author.
+     *
+     * @param author the author's name
+     * @return the author's id, or {@link AuthorDictionary#NO_AUTHOR} if no row was ever by that author
+     */
+    int authorIdOf(final String author)
+    {
+        return authors.idOf(author);
+    }
+
+    /**
+     * Returns the length of the title stored in a row without creating a string.
+     *
+     * @param row the row to read
+     * @return the number of characters in the row's title
+     */
+    int titleLengthAt(final int row)
+    {
+        final int[] offsets;
+
+        offsets = columns.titleOffsets();
+
+        return offsets[row + 1] - offsets[row];
+    }
+
+    /**
+     * Returns the title stored in a row.
+     *
+     * @param row the row to read
+     * @return a new string holding the row's title
+     */
+    String titleAt(final int row)
+    {
+        return columns.titleAt(row);
+    }
+
+    /**
+     * Returns the hash code the row's title would have as a string, without creating one.
+     *
+     * @param row the row to read
+     * @return the same value as {@code titleAt(row).hashCode()}
+     */
+    int titleHashAt(final int row)
+    {
+        final char[] chars;
+        final int    end;
+        int          hash;
+
+        chars = columns.titleChars();
+        end   = columns.titleOffsets()[row + 1];
+        hash  = 0;
+
+        for(int i = columns.titleOffsets()[row]; i < end; ++i)
+        {
+            hash = 31 * hash + chars[i];
+        }
+
+        return hash;
+    }
+
+    /**
+     * Returns whether a row's title is exactly the given text.
+     *
+     * @param row   the row to read
+     * @param title the text to compare with
+     * @return true if the title and the text are equal
+     */
+    boolean titleEquals(final int row, final String title)
+    {
+        final char[] chars;
+        final int    start;
+
+        if(titleLengthAt(row) != title.length())
+        {
+            return false;
+        }
+
+        chars = columns.titleChars();
+        start = columns.titleOffsets()[row];
+
+        for(int i = 0; i < title.length(); ++i)
+        {
+            if(chars[start + i] != title.charAt(i))
+            {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Compares the titles of two rows as {@link String#compareTo(String)} would.
+     *
+     * @param first  one row
+     * @param second the other row
+     * @return a negative number, zero or a positive number as the first title sorts before, with or after the second
+     */
+    int compareTitles(final int first, final int second)
+    {
+        final Columns current;
+
+        current = columns;
+
+        return compare(current.titleChars(), current.titleOffsets(), first, second);
+    }
+
+    /**
+     * Compares the folded titles of two rows, the order {@link Novel#compareTo(Novel)} sorts by.
+     *
+     * @param first  one row
+     * @param second the other row
+     * @return a negative number, zero or a positive number as the first folded title sorts before, with or after the second
+     */
+    int compareFoldedTitles(final int first, final int second)
+    {
+        final Columns current;
+
+        current = columns;
+
+        return compare(current.foldedChars(), current.foldedOffsets(), first, second);
+    }
+
+    /**
+     * Compares a row's folded title with folded text, as {@link String#compareTo(String)} would.
+     *
+     * @param row    the row to read
+     * @param folded text already folded with {@link Novel#foldTitle(String)}
+     * @return a negative number, zero or a positive number as the folded title sorts before, with or after the text
+     */
+    int compareFoldedTitle(final int row, final String folded)
+    {
+        final char[] chars;
+        final int    start;
+        final int    length;
+        final int    common;
+
+        chars  = columns.foldedChars();
+        start  = columns.foldedOffsets()[row];
+        length = foldedLengthAt(row);
+        common = Math.min(length, folded.length());
+
+        for(int i = 0; i < common; ++i)
+        {
+            if(chars[start + i] != folded.charAt(i))
+            {
+                return chars[start + i] - folded.charAt(i);
+            }
+        }
+
+        return length - folded.length();
+    }
+
+    /**
+     * Returns whether a row's folded title starts with folded text.
+     *
+     * @param row    the row to read
+     * @param folded text already folded with {@link Novel#foldTitle(String)}
+     * @return true if the folded title starts with the text
+     */
+    boolean foldedTitleStartsWith(final int row, final String folded)
+    {
+        return foldedLengthAt(row) >= folded.length() && regionMatches(row, columns.foldedOffsets()[row], folded);
+    }
+
+    /**
+     * Returns whether a row's folded title contains folded text, the test
+     * {@link Novel#titleContains(String)} makes, without creating a string.
+     *
+     * @param row    the row to read
+     * @param folded text already folded with {@link Novel#foldTitle(String)}
+     * @return true if the folded title contains the text
+     */
+    boolean foldedTitleContains(final int row, final String folded)
+    {
+        final int[] offsets;
+        final int   last;
+
+        if(folded.isEmpty())
+        {
+            return true;
+        }
+
+        offsets = columns.foldedOffsets();
+        last    = offsets[row + 1] - folded.length();
+
+        for(int start = offsets[row]; start <= last; ++start)
+        {
+            if(regionMatches(row, start, folded))
+            {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Returns the length of a row's folded title.
+     *
+     * @param row the row to read
+     * @return the number of characters in the folded title
+     */
+    int foldedLengthAt(final int row)
+    {
+        final int[] offsets;
+
+        offsets = columns.foldedOffsets();
+
+        return offsets[row + 1] - offsets[row];
+    }
+
+    /**
+     * Returns one character of a row's folded title.
+     *
+     * @param row   the row to read
+     * @param index the position in the folded title
+     * @return the character at that position
+     */
+    char foldedCharAt(final int row, final int index)
+    {
+        return columns.foldedChars()[columns.foldedOffsets()[row] + index];
+    }
+
+    /*
+     * Returns whether the folded buffer holds the folded text at the given position, which
+     * the caller has checked leaves room for it.
+     */
+    private boolean regionMatches(final int row, final int start, final String folded)
+    {
+        final char[] chars;
+
+        chars = columns.foldedChars();
+
+        for(int i = 0; i < folded.length(); ++i)
+        {
+            if(chars[start + i] != folded.charAt(i))
+            {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /*
+     * Compares two rows of a character buffer lexicographically by char value.
+     */
+    private static int compare(final char[] chars,
+                               final int[]  offsets,
+                               final int    first,
+                               final int    second)
+    {
+        final int firstStart;
+        final int secondStart;
+        final int firstLength;
+        final int secondLength;
+        final int common;
+
+        firstStart   = offsets[first];
+        secondStart  = offsets[second];
+        firstLength  = offsets[first + 1] - firstStart;
+        secondLength = offsets[second + 1] - secondStart;
+        common       = Math.min(firstLength, secondLength);
+
+        for(int i = 0; i < common; ++i)
+        {
+            if(chars[firstStart + i] != chars[secondStart + i])
+            {
+                return chars[firstStart + i] - chars[secondStart + i];
+            }
+        }
+
+        return firstLength - secondLength;
+    }
+
+    /*
+     * The column arrays at one moment. A new Columns replaces the old one whenever an
+     * array is reallocated, so a list holding an old one keeps reading the arrays its
+     * rows were written to.
+     */
+    private record Columns(int[]    years,
+                           int[]    authorIds,
+                           String[] authorNames,
+                           char[]   titleChars,
+                           int[]    titleOffsets,
+                           char[]   foldedChars,
+                           int[]    foldedOffsets)
+    {
+        /*
+         * Makes a novel from a row, reusing the dictionary's author string.
+         */
+        Novel novelAt(final int row)
+        {
+            return new Novel(titleAt(row),
+                             new String(foldedChars, foldedOffsets[row], foldedOffsets[row + 1] - foldedOffsets[row]),
+                             authorAt(row),
+                             years[row]);
+        }
+
+        /*
+         * Makes a string of a row's title.
+         */
+        String titleAt(final int row)
+        {
+            return new String(titleChars, titleOffsets[row], titleOffsets[row + 1] - titleOffsets[row]);
+        }
+
+        /*
+         * Returns a row's author from the dictionary.
+         */
+        String authorAt(final int row)
+        {
+            return authorIds[row] == AuthorDictionary.NO_AUTHOR ? null : authorNames[authorIds[row]];
+        }
+    }
+
+    /*
+     * An unmodifiable list over some rows, which subclasses turn into elements.
+     */
+    private abstract static class RowList<E> extends AbstractList<E> implements RandomAccess
+    {
+        private final int[] rows;
+        private final int   size;
+
+        RowList(final int[] rows, final int size)
+        {
+            this.rows = rows;
+            this.size = size;
+        }
+
+        /*
+         * Returns the row behind an element, checking the index.
+         */
+        int rowAt(final int index)
+        {
+            if(index < 0 || index >= size)
+            {
+                throw new IndexOutOfBoundsException("Index " + index + " out of " + size);
+            }
+
+            return rows == null ? index : rows[index];
+        }
+
+        @Override
+        public int size()
+        {
+            return size;
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package bookstore;
+
+/**
+ * The {@code OperationStats} record is a point-in-time summary of one
+ * {@link QueryOperation}. Counters are read one after another while queries may still be
+ * running, so the fields can be very slightly out of step with each other.
+ *
+ * @param calls           the number of times the operation ran
+ * @param elementsScanned the total number of elements it examined
+ * @param elementsSkipped the total number of elements indexes let it avoid examining
+ * @param results         the total number of results it returned
+ * @param p50Nanos        the median latency, in nanoseconds
+ * @param p99Nanos        the 99th percentile latency, in nanoseconds
+ * @param maxNanos        the largest latency seen, in nanoseconds
+ *
+ * @version 1.0
+ */
+public record OperationStats(long calls,
+                             long elementsScanned,
+                             long elementsSkipped,
+                             long results,
+                             long p50Nanos,
+                             long p99Nanos,
+                             long maxNanos)
+{
+}
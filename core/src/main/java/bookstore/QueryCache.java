@@ -0,0 +1,607 @@
+package bookstore;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * The {@code QueryCache} class remembers the answers to repeated {@link BookStore}
+ * queries, keyed by query and arguments, within a memory budget. It caches the queries
+ * that scan titles or sort: title search and counts, decade groups, year percentages,
+ * fuzzy search, prefix search and paging. Queries the store already answers from an index
+ * in constant time, such as {@link BookStore#getBooksThisLength(int)}, are not cached,
+ * since a cache lookup would cost as much as the query.
+ * <p>
+ * Eviction follows W-TinyLFU. New answers enter a small LRU window holding 1% of the
+ * budget. An answer pushed out of the window only displaces the least recently used
+ * answer of the main region if a {@link FrequencySketch} says it has been asked for more
+ * often, so a burst of one-off queries cannot flush the popular ones.
+ * <p>
+ * Every cached answer belongs to one catalog version. The first lookup after the store
+ * changes drops the whole cache, and an answer computed while the store was changing is
+ * never cached, so no lookup can return a stale answer.
+ * <p>
+ * The cache is safe to share between threads. A hit is a read of a concurrent map and
+ * takes no lock. Since recency and frequency cannot be updated without one, each hit
+ * only drops its key into one of several small read buffers, striped by thread, and
+ * whichever thread finds a buffer full replays them all under the lock if it is free. A
+ * hit that finds its buffer contended is not recorded, which only makes the eviction
+ * order slightly less exact. Misses update the cache under the lock, but answers are
+ * computed outside it. The sizes of cached answers are estimates.
+ *
+ * @version 1.0
+ */
+public final class QueryCache
+{
+    private static final int   WINDOW_PERCENT   = 1;
+    private static final int   PERCENT          = 100;
+    private static final int   DECADE           = 10;
+    private static final int   INITIAL_CAPACITY = 16;
+    private static final float LOAD_FACTOR      = 0.75f;
+    private static final long  ENTRY_BYTES      = 96L;
+    private static final long  CHAR_BYTES       = 2L;
+    private static final long  REFERENCE_BYTES  = 8L;
+    private static final long  BOXED_BYTES      = 16L;
+    private static final long  LIST_BYTES       = 32L;
+    private static final long  THREAD_MIX       = 0x9E3779B97F4A7C15L;
+
+    private final BookStore<?>                  store;
+    private final long                          windowBudget;
+    private final long                          mainBudget;
+    private final ConcurrentHashMap<Key, Entry> data;
+    private final LinkedHashMap<Key, Entry>     window;
+    private final LinkedHashMap<Key, Entry>     main;
+    private final FrequencySketch               sketch;
+    private final ReadBuffer[]                  readBuffers;
+    private final Consumer<Key>                 onRead;
+    private final Lock                          lock;
+    private final LongAdder                     hits;
+    private final LongAdder                     misses;
+    private final LongAdder                     evictions;
+    private long                                windowWeight;
+    private long                                mainWeight;
+    private volatile long                       cachedVersion;
+
+    /**
+     * Constructs an empty {@code QueryCache} in front of the given store.
+     *
+     * @param store       the store whose answers to cache
+     * @param budgetBytes the estimated memory the cached answers may use
+     */
+    public QueryCache(final BookStore<?> store,
+                      final long         budgetBytes)
+    {
+        if(store == null)
+        {
+            throw new IllegalArgumentException("Store cannot be null");
+        }
+
+        if(budgetBytes <= 0)
+        {
+            throw new IllegalArgumentException("Budget must be positive: " + budgetBytes);
+        }
+
+        this.store         = store;
+        this.windowBudget  = Math.max(1L, budgetBytes * WINDOW_PERCENT / PERCENT);
+        this.mainBudget    = Math.max(1L, budgetBytes - windowBudget);
+        this.data          = new ConcurrentHashMap<>();
+        this.window        = new LinkedHashMap<>(INITIAL_CAPACITY, LOAD_FACTOR, true);
+        this.main          = new LinkedHashMap<>(INITIAL_CAPACITY, LOAD_FACTOR, true);
+        this.sketch        = new FrequencySketch(budgetBytes / ENTRY_BYTES);
+        this.readBuffers   = new ReadBuffer[Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 2 - 1)];
+        this.onRead        = this::replayRead;
+        this.lock          = new ReentrantLock();
+        this.hits          = new LongAdder();
+        this.misses        = new LongAdder();
+        this.evictions     = new LongAdder();
+        this.cachedVersion = store.getVersion();
+
+        for(int i = 0; i < readBuffers.length; ++i)
+        {
+            readBuffers[i] = new ReadBuffer();
+        }
+    }
+
+    /**
+     * Returns {@link BookStore#howManyBooksContain(String)}, cached.
+     *
+     * @param word the text to count titles containing
+     * @return the number of matching titles
+     */
+    public int howManyBooksContain(final String word)
+    {
+        return lookup(new Key(QueryOperation.COUNT_CONTAINING, word, 0, 0),
+                      () -> store.howManyBooksContain(word),
+                      answer -> BOXED_BYTES);
+    }
+
+    /**
+     * Returns {@link BookStore#whichPercentWrittenBetween(int, int)}, cached.
+     *
+     * @param lowerBound the first year of the range
+     * @param upperBound the last year of the range
+     * @return the percentage of novels published in the range
+     */
+    public double whichPercentWrittenBetween(final int lowerBound,
+                                             final int upperBound)
+    {
+        return lookup(new Key(QueryOperation.PERCENT_BETWEEN, null, lowerBound, upperBound),
+                      () -> store.whichPercentWrittenBetween(lowerBound, upperBound),
+                      answer -> BOXED_BYTES);
+    }
+
+    /**
+     * Returns the novels {@link BookStore#printGroupByDecade(int)} prints, cached. Years of
+     * the same decade share one entry.
+     *
+     * @param decade any year of the decade
+     * @return an unmodifiable list of the novels published in that decade
+     */
+    public List<Novel> getGroupByDecade(final int decade)
+    {
+        return lookup(new Key(QueryOperation.GROUP_BY_DECADE, null, decade / DECADE * DECADE, 0),
+                      () -> store.streamGroupByDecade(decade).toList(),
+                      QueryCache::weigh);
+    }
+
+    /**
+     * Returns the novels {@link BookStore#printBookTitle(String)} prints, cached.
+     *
+     * @param title the text the titles must contain, ignoring case
+     * @return an unmodifiable list of the matching novels
+     */
+    public List<Novel> searchTitles(final String title)
+    {
+        return lookup(new Key(QueryOperation.SEARCH_TITLES, title, 0, 0),
+                      () -> store.streamBookTitle(title).toList(),
+                      QueryCache::weigh);
+    }
+
+    /**
+     * Returns {@link BookStore#fuzzySearch(String, int, int)}, cached.
+     *
+     * @param query    the text to search for
+     * @param maxEdits the largest number of edits allowed
+     * @param limit    the largest number of novels to return
+     * @return an unmodifiable list of up to {@code limit} of the closest matches, best first
+     */
+    public List<Novel> fuzzySearch(final String query,
+                                   final int    maxEdits,
+                                   final int    limit)
+    {
+        return lookup(new Key(QueryOperation.FUZZY, query, maxEdits, limit),
+                      () -> List.copyOf(store.fuzzySearch(query, maxEdits, limit)),
+                      QueryCache::weigh);
+    }
+
+    /**
+     * Returns {@link BookStore#titlesStartingWith(String, int)}, cached.
+     *
+     * @param prefix the text the titles must start with
+     * @param limit  the largest number of titles to return
+     * @return an unmodifiable list of up to {@code limit} matching titles
+     */
+    public List<String> titlesStartingWith(final String prefix,
+                                           final int    limit)
+    {
+        return lookup(new Key(QueryOperation.PREFIX, prefix, limit, 0),
+                      () -> List.copyOf(store.titlesStartingWith(prefix, limit)),
+                      QueryCache::weigh);
+    }
+
+    /**
+     * Returns {@link BookStore#page(String, int)}, cached.
+     *
+     * @param after the exact title of the last novel already shown, or null to start at the beginning
+     * @param limit the largest number of novels on the page
+     * @return an unmodifiable list of the next novels in alphabetical order
+     */
+    public List<Novel> page(final String after,
+                            final int    limit)
+    {
+        return lookup(new Key(QueryOperation.PAGE, after, limit, 0),
+                      () -> List.copyOf(store.page(after, limit)),
+                      QueryCache::weigh);
+    }
+
+    /**
+     * Drops every cached answer.
+     */
+    public void invalidateAll()
+    {
+        lock.lock();
+
+        try
+        {
+            clear();
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of lookups answered from the cache.
+     *
+     * @return the hit count
+     */
+    public long getHitCount()
+    {
+        return hits.sum();
+    }
+
+    /**
+     * Returns the number of lookups that had to query the store.
+     *
+     * @return the miss count
+     */
+    public long getMissCount()
+    {
+        return misses.sum();
+    }
+
+    /**
+     * Returns the number of answers evicted to stay within the budget.
+     *
+     * @return the eviction count
+     */
+    public long getEvictionCount()
+    {
+        return evictions.sum();
+    }
+
+    /**
+     * Returns the fraction of lookups answered from the cache.
+     *
+     * @return the hit rate, from 0 to 1, or 0 before the first lookup
+     */
+    public double getHitRate()
+    {
+        final long hitCount;
+        final long total;
+
+        hitCount = hits.sum();
+        total    = hitCount + misses.sum();
+
+        return total == 0 ? 0.0 : (double) hitCount / total;
+    }
+
+    /**
+     * Returns the number of cached answers.
+     *
+     * @return the number of entries
+     */
+    public int size()
+    {
+        return data.size();
+    }
+
+    /**
+     * Returns the estimated memory used by the cached answers.
+     *
+     * @return the estimated size in bytes
+     */
+    public long getWeightedSize()
+    {
+        lock.lock();
+
+        try
+        {
+            return windowWeight + mainWeight;
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+    /*
+     * Returns the cached answer for the key, or computes and caches it. A hit takes no lock.
+     */
+    @SuppressWarnings("unchecked")
+    private <V> V lookup(final Key               key,
+                         final Supplier<V>       loader,
+                         final ToLongFunction<V> weigher)
+    {
+        final long  version;
+        final Entry cached;
+        final V     value;
+        final long  weight;
+
+        version = store.getVersion();
+
+        if(version > cachedVersion)
+        {
+            lock.lock();
+
+            try
+            {
+                if(version > cachedVersion)
+                {
+                    clear();
+                    cachedVersion = version;
+                }
+            }
+            finally
+            {
+                lock.unlock();
+            }
+        }
+
+        cached = data.get(key);
+
+        if(cached != null && cached.version() == version)
+        {
+            hits.increment();
+            recordRead(key);
+            return (V) cached.value();
+        }
+
+        misses.increment();
+        value  = loader.get();
+        weight = ENTRY_BYTES + key.weight() + weigher.applyAsLong(value);
+
+        lock.lock();
+
+        try
+        {
+            drainReadBuffers();
+            sketch.increment(key);
+
+            if(store.getVersion() == version && cachedVersion == version && weight <= mainBudget &&
+               !data.containsKey(key))
+            {
+                final Entry entry;
+
+                entry = new Entry(value, weight, version);
+
+                data.put(key, entry);
+                window.put(key, entry);
+                windowWeight += weight;
+                evict();
+            }
+        }
+        finally
+        {
+            lock.unlock();
+        }
+
+        return value;
+    }
+
+    /*
+     * Notes a hit in the calling thread's read buffer, and replays the buffers if it is
+     * full and no other thread holds the lock.
+     */
+    private void recordRead(final Key key)
+    {
+        final int stripe;
+
+        stripe = (int) ((Thread.currentThread().threadId() * THREAD_MIX) >>> Integer.SIZE) & (readBuffers.length - 1);
+
+        if(readBuffers[stripe].offer(key) && lock.tryLock())
+        {
+            try
+            {
+                drainReadBuffers();
+            }
+            finally
+            {
+                lock.unlock();
+            }
+        }
+    }
+
+    /*
+     * Replays every buffered hit. Callers hold the lock.
+     */
+    private void drainReadBuffers()
+    {
+        for(ReadBuffer buffer : readBuffers)
+        {
+            buffer.drain(onRead);
+        }
+    }
+
+    /*
+     * Counts one buffered hit and marks its answer most recently used, if still cached.
+     * Callers hold the lock.
+     */
+    private void replayRead(final Key key)
+    {
+        sketch.increment(key);
+
+        if(window.get(key) == null)
+        {
+            main.get(key);
+        }
+    }
+
+    /*
+     * Moves answers from the window to the main region until the window fits its budget,
+     * letting each one in only if it is asked for more often than the main region's
+     * least recently used answers it would displace.
+     */
+    private void evict()
+    {
+        while(windowWeight > windowBudget)
+        {
+            final Map.Entry<Key, Entry> candidate;
+
+            candidate = removeEldest(window);
+            windowWeight -= candidate.getValue().weight();
+
+            main.put(candidate.getKey(), candidate.getValue());
+            mainWeight += candidate.getValue().weight();
+
+            while(mainWeight > mainBudget)
+            {
+                final Map.Entry<Key, Entry> victim;
+
+                victim = main.entrySet().iterator().next();
+
+                evictions.increment();
+
+                if(victim.getKey().equals(candidate.getKey()) ||
+                   sketch.frequency(candidate.getKey()) <= sketch.frequency(victim.getKey()))
+                {
+                    main.remove(candidate.getKey());
+                    data.remove(candidate.getKey());
+                    mainWeight -= candidate.getValue().weight();
+                    break;
+                }
+
+                main.remove(victim.getKey());
+                data.remove(victim.getKey());
+                mainWeight -= victim.getValue().weight();
+            }
+        }
+    }
+
+    /*
+     * Removes and returns the least recently used entry of a region.
+     */
+    private static Map.Entry<Key, Entry> removeEldest(final LinkedHashMap<Key, Entry> region)
+    {
+        final Iterator<Map.Entry<Key, Entry>> entries;
+        final Map.Entry<Key, Entry>           eldest;
+
+        entries = region.entrySet().iterator();
+        eldest  = entries.next();
+
+        entries.remove();
+
+        return Map.entry(eldest.getKey(), eldest.getValue());
+    }
+
+    /*
+     * Drops every entry. Callers hold the lock.
+     */
+    private void clear()
+    {
+        data.clear();
+        window.clear();
+        main.clear();
+        windowWeight = 0;
+        mainWeight   = 0;
+    }
+
+    /*
+     * Estimates the memory held by a list of answers, not counting the shared novels or titles.
+     */
+    private static long weigh(final List<?> list)
+    {
+        return LIST_BYTES + list.size() * REFERENCE_BYTES;
+    }
+
+    /*
+     * A query together with its text argument, if any, and up to two numbers.
+     */
+    private record Key(QueryOperation operation, String text, int firstNumber, int secondNumber)
+    {
+        /*
+         * Estimates the memory held by the key's text.
+         */
+        long weight()
+        {
+            return text == null ? BOXED_BYTES : BOXED_BYTES + text.length() * CHAR_BYTES;
+        }
+    }
+
+    /*
+     * A cached answer, its estimated size and the catalog version it was computed from.
+     */
+    private record Entry(Object value, long weight, long version)
+    {
+    }
+
+    /*
+     * A small lossy ring of recently hit keys. Any thread may offer a key; only the holder
+     * of the cache's lock drains it. A key offered while the ring is full, or while another
+     * thread is claiming the same slot, is dropped.
+     */
+    private static final class ReadBuffer
+    {
+        private static final int SIZE = 16;
+        private static final int MASK = SIZE - 1;
+
+        private final AtomicReferenceArray<Key> slots;
+        private final AtomicLong                writes;
+        private volatile long                   reads;
+
+        ReadBuffer()
+        {
+            this.slots  = new AtomicReferenceArray<>(SIZE);
+            this.writes = new AtomicLong();
+        }
+
+        /*
+         * Adds a key unless the ring is full or contended, and returns whether the ring is
+         * now full and should be drained.
+         */
+        boolean offer(final Key key)
+        {
+            final long write;
+
+            write = writes.get();
+
+            if(write - reads >= SIZE)
+            {
+                return true;
+            }
+
+            if(!writes.compareAndSet(write, write + 1))
+            {
+                return false;
+            }
+
+            slots.setRelease((int) write & MASK, key);
+
+            return write + 1 - reads >= SIZE;
+        }
+
+        /*
+         * Passes every published key to the action and empties their slots. Callers hold
+         * the cache's lock.
+         */
+        void drain(final Consumer<Key> action)
+        {
+            final long write;
+            long       read;
+
+            write = writes.get();
+            read  = reads;
+
+            while(read < write)
+            {
+                final int index;
+                final Key key;
+
+                index = (int) read & MASK;
+                key   = slots.getAcquire(index);
+
+                if(key == null)
+                {
+                    break;
+                }
+
+                slots.setRelease(index, null);
+                action.accept(key);
+                read++;
+            }
+
+            reads = read;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package bookstore;
+
+import java.util.Map;
+
+/**
+ * The {@code QueryMetrics} interface receives one observation for every instrumented
+ * {@link BookStore} query: how long it took, how many elements it examined, how many it
+ * let an index skip, and how many results it returned.
+ * <p>
+ * A query calls {@link #start()} before it runs and {@link #record} when it finishes.
+ * {@link #NOOP} is the default; its methods are empty, so once the JIT inlines them an
+ * uninstrumented store does not even read the clock.
+ *
+ * @version 1.0
+ */
+public interface QueryMetrics
+{
+    /**
+     * Metrics that discard every observation.
+     */
+    QueryMetrics NOOP = new NoOpQueryMetrics();
+
+    /**
+     * Marks the start of a query.
+     *
+     * @return the value to pass back to {@link #record}
+     */
+    long start();
+
+    /**
+     * Records one finished query.
+     *
+     * @param operation the query that ran
+     * @param start     the value returned by {@link #start()} when it began
+     * @param scanned   the number of elements the query examined
+     * @param skipped   the number of elements an index let the query avoid examining
+     * @param results   the number of results it produced
+     */
+    void record(QueryOperation operation,
+                long           start,
+                int            scanned,
+                int            skipped,
+                int            results);
+
+    /**
+     * Returns the statistics gathered so far for every operation that has run.
+     *
+     * @return an unmodifiable map from operation to its statistics
+     */
+    Map<QueryOperation, OperationStats> snapshot();
+}
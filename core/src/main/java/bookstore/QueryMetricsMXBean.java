@@ -0,0 +1,66 @@
+package bookstore;
+
+import java.util.Map;
+
+/**
+ * The {@code QueryMetricsMXBean} interface is the JMX view of a
+ * {@link RecordingQueryMetrics}. Every attribute maps an operation name to its value.
+ *
+ * @version 1.0
+ */
+public interface QueryMetricsMXBean
+{
+    /**
+     * Returns the number of calls of each operation.
+     *
+     * @return calls by operation name
+     */
+    Map<String, Long> getCalls();
+
+    /**
+     * Returns the total number of elements each operation examined.
+     *
+     * @return elements scanned by operation name
+     */
+    Map<String, Long> getElementsScanned();
+
+    /**
+     * Returns the total number of elements indexes let each operation avoid examining.
+     *
+     * @return elements skipped by operation name
+     */
+    Map<String, Long> getElementsSkipped();
+
+    /**
+     * Returns the total number of results each operation returned.
+     *
+     * @return results by operation name
+     */
+    Map<String, Long> getResults();
+
+    /**
+     * Returns the median latency of each operation.
+     *
+     * @return median latency in nanoseconds by operation name
+     */
+    Map<String, Long> getP50Nanos();
+
+    /**
+     * Returns the 99th percentile latency of each operation.
+     *
+     * @return 99th percentile latency in nanoseconds by operation name
+     */
+    Map<String, Long> getP99Nanos();
+
+    /**
+     * Returns the largest latency seen for each operation.
+     *
+     * @return maximum latency in nanoseconds by operation name
+     */
+    Map<String, Long> getMaxNanos();
+
+    /**
+     * Clears every counter and histogram.
+     */
+    void reset();
+}
@@ -0,0 +1,29 @@
+package bookstore;
+
+/**
+ * The {@code QueryOperation} enum names the {@link BookStore} queries that
+ * {@link QueryMetrics} keeps separate statistics for.
+ *
+ * @version 1.0
+ */
+public enum QueryOperation
+{
+    GET_NOVEL,
+    SEARCH_TITLES,
+    COUNT_CONTAINING,
+    YEAR_LOOKUP,
+    PERCENT_BETWEEN,
+    GROUP_BY_DECADE,
+    OLDEST,
+    BY_LENGTH,
+    BY_AUTHOR,
+    TOP_K,
+    PAGE,
+    PREFIX,
+    FUZZY,
+    FIND_NOVELS,
+    COUNT_NOVELS,
+    FIND_ITEMS,
+    COUNT_ITEMS,
+    BATCH
+}
@@ -0,0 +1,194 @@
+package bookstore;
+
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToLongFunction;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * The {@code RecordingQueryMetrics} class keeps lock-free statistics for every
+ * {@link QueryOperation}: {@link LongAdder} counters for calls, elements scanned,
+ * elements skipped and results, and a {@link LatencyHistogram} of latencies.
+ * <p>
+ * Recording never blocks, so one instance can be shared by every thread querying a store.
+ * The statistics can be read with {@link #snapshot()} or, once {@link #register(String)}
+ * has been called, through JMX.
+ *
+ * @version 1.0
+ */
+public final class RecordingQueryMetrics implements QueryMetrics, QueryMetricsMXBean
+{
+    private static final String OBJECT_NAME_PREFIX = "bookstore:type=QueryMetrics,name=";
+    private static final double MEDIAN             = 50.0;
+    private static final double P99                = 99.0;
+
+    private final Map<QueryOperation, Counters> counters;
+
+    /**
+     * Constructs a {@code RecordingQueryMetrics} with every statistic at zero.
+     */
+    public RecordingQueryMetrics()
+    {
+        this.counters = new EnumMap<>(QueryOperation.class);
+
+        for(QueryOperation operation : QueryOperation.values())
+        {
+            counters.put(operation, new Counters());
+        }
+    }
+
+    /**
+     * Registers these metrics with the platform MBean server.
+     *
+     * @param name the name to register under, usually the store name
+     * @return the object name the metrics were registered as
+     * @throws JMException if the name is invalid or already registered
+     */
+    public ObjectName register(final String name) throws JMException
+    {
+        final ObjectName objectName;
+
+        objectName = new ObjectName(OBJECT_NAME_PREFIX + ObjectName.quote(name));
+        ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+
+        return objectName;
+    }
+
+    @Override
+    public long start()
+    {
+        return System.nanoTime();
+    }
+
+    @Override
+    public void record(final QueryOperation operation,
+                       final long           start,
+                       final int            scanned,
+                       final int            skipped,
+                       final int            results)
+    {
+        final Counters counter;
+
+        counter = counters.get(operation);
+
+        counter.latency.record(System.nanoTime() - start);
+        counter.calls.increment();
+        counter.scanned.add(scanned);
+        counter.skipped.add(skipped);
+        counter.results.add(results);
+    }
+
+    @Override
+    public Map<QueryOperation, OperationStats> snapshot()
+    {
+        final Map<QueryOperation, OperationStats> stats;
+
+        stats = new EnumMap<>(QueryOperation.class);
+
+        counters.forEach((operation, counter) ->
+        {
+            final long calls;
+
+            calls = counter.calls.sum();
+
+            if(calls > 0)
+            {
+                stats.put(operation, new OperationStats(calls,
+                                                        counter.scanned.sum(),
+                                                        counter.skipped.sum(),
+                                                        counter.results.sum(),
+                                                        counter.latency.valueAtPercentile(MEDIAN),
+                                                        counter.latency.valueAtPercentile(P99),
+                                                        counter.latency.max()));
+            }
+        });
+
+        return Collections.unmodifiableMap(stats);
+    }
+
+    @Override
+    public Map<String, Long> getCalls()
+    {
+        return byName(OperationStats::calls);
+    }
+
+    @Override
+    public Map<String, Long> getElementsScanned()
+    {
+        return byName(OperationStats::elementsScanned);
+    }
+
+    @Override
+    public Map<String, Long> getElementsSkipped()
+    {
+        return byName(OperationStats::elementsSkipped);
+    }
+
+    @Override
+    public Map<String, Long> getResults()
+    {
+        return byName(OperationStats::results);
+    }
+
+    @Override
+    public Map<String, Long> getP50Nanos()
+    {
+        return byName(OperationStats::p50Nanos);
+    }
+
+    @Override
+    public Map<String, Long> getP99Nanos()
+    {
+        return byName(OperationStats::p99Nanos);
+    }
+
+    @Override
+    public Map<String, Long> getMaxNanos()
+    {
+        return byName(OperationStats::maxNanos);
+    }
+
+    @Override
+    public void reset()
+    {
+        for(Counters counter : counters.values())
+        {
+            counter.calls.reset();
+            counter.scanned.reset();
+            counter.skipped.reset();
+            counter.results.reset();
+            counter.latency.reset();
+        }
+    }
+
+    /*
+     * Reads one statistic of every operation that has run, keyed by operation name.
+     */
+    private Map<String, Long> byName(final ToLongFunction<OperationStats> statistic)
+    {
+        final Map<String, Long> values;
+
+        values = new TreeMap<>();
+
+        snapshot().forEach((operation, stats) -> values.put(operation.name(), statistic.applyAsLong(stats)));
+
+        return values;
+    }
+
+    /*
+     * The counters of one operation.
+     */
+    private static final class Counters
+    {
+        private final LongAdder        calls   = new LongAdder();
+        private final LongAdder        scanned = new LongAdder();
+        private final LongAdder        skipped = new LongAdder();
+        private final LongAdder        results = new LongAdder();
+        private final LatencyHistogram latency = new LatencyHistogram();
+    }
+}
@@ -0,0 +1,825 @@
+package bookstore;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * The {@code ShardedBookStore} class splits a catalog across several in-process
+ * {@link BookStore} shards. A query runs on every shard that can hold an answer at once,
+ * on the given executor, and the partial answers are merged into the one a single store
+ * would give.
+ * <p>
+ * Novels are assigned to shards either by title hash, which spreads every query evenly,
+ * or by year range, with boundaries chosen so each shard starts with about the same
+ * number of novels. Year-partitioned stores skip the shards outside the years a query
+ * asks about, and title lookups in title-partitioned stores go to a single shard.
+ * <p>
+ * Every novel keeps the row it would have in a single store's catalog, numbered in the
+ * order novels were stocked. Partial answers are merged by that row wherever a single
+ * store answers in catalog order or breaks ties by it, so every query returns the same
+ * novels in the same order as a {@link BookStore} holding the same catalog.
+ * <p>
+ * Each shard is consistent on its own, but a query that reads several shards while
+ * novels are added or removed may see some shards before a change and others after it.
+ *
+ * @version 1.0
+ */
+public final class ShardedBookStore
+{
+    private static final int    DECADE               = 10;
+    private static final int    PERCENTAGE_CONVERTOR = 100;
+    private static final Long   NOT_STOCKED          = Long.MAX_VALUE;
+    private static final String LINE_SEPARATOR       = System.lineSeparator();
+
+    private final String                          storeName;
+    private final BookStore<Novel>[]              shards;
+    private final int[]                           firstYears;
+    private final Executor                        executor;
+    private final Lock                            writeLock;
+    private final ConcurrentHashMap<String, Long> rows;
+    private final Comparator<Novel>               catalogOrder;
+    private long                                  nextRow;
+
+    /*
+     * Wraps shards that already hold the given novels, numbering their rows in list order.
+     * firstYears is null for title hashing, otherwise it holds the first year of every
+     * shard but the first.
+     */
+    private ShardedBookStore(final String             storeName,
+                             final List<Novel>        novels,
+                             final BookStore<Novel>[] shards,
+                             final int[]              firstYears,
+                             final Executor           executor)
+    {
+        this.storeName    = storeName;
+        this.shards       = shards;
+        this.firstYears   = firstYears;
+        this.executor     = executor;
+        this.writeLock    = new ReentrantLock();
+        this.rows         = new ConcurrentHashMap<>(novels.size() * 2);
+        this.catalogOrder = Comparator.comparingLong(this::rowOf);
+
+        for(Novel novel : novels)
+        {
+            rows.put(novel.getTitle(), nextRow++);
+        }
+    }
+
+    /**
+     * Creates a store whose novels are assigned to shards by the hash of their title.
+     *
+     * @param storeName  the name of the bookstore
+     * @param novels     the novels to stock
+     * @param shardCount the number of shards
+     * @param executor   runs the per-shard parts of each query
+     * @return the sharded store
+     * @throws IllegalArgumentException if a novel is null or two novels share a title
+     */
+    public static ShardedBookStore byTitleHash(final String      storeName,
+                                               final List<Novel> novels,
+                                               final int         shardCount,
+                                               final Executor    executor)
+    {
+        final List<List<Novel>> partitions;
+
+        validate(novels, shardCount, executor);
+
+        partitions = emptyPartitions(shardCount);
+
+        for(Novel novel : novels)
+        {
+            partitions.get(Math.floorMod(novel.getTitle().hashCode(), shardCount)).add(novel);
+        }
+
+        return new ShardedBookStore(storeName, novels, newShards(storeName, partitions), null, executor);
+    }
+
+    /**
+     * Creates a store whose novels are assigned to shards by year of publication. Each
+     * shard covers a contiguous range of years holding about the same number of novels.
+     *
+     * @param storeName  the name of the bookstore
+     * @param novels     the novels to stock
+     * @param shardCount the number of shards
+     * @param executor   runs the per-shard parts of each query
+     * @return the sharded store
+     * @throws IllegalArgumentException if a novel is null or two novels share a title
+     */
+    public static ShardedBookStore byYearRange(final String      storeName,
+                                               final List<Novel> novels,
+                                               final int         shardCount,
+                                               final Executor    executor)
+    {
+        final int[]             years;
+        final int[]             firstYears;
+        final List<List<Novel>> partitions;
+
+        validate(novels, shardCount, executor);
+
+        years      = novels.stream().mapToInt(Novel::getYearPublished).sorted().toArray();
+        firstYears = new int[shardCount - 1];
+
+        for(int shard = 1; shard < shardCount; ++shard)
+        {
+            firstYears[shard - 1] = years.length == 0 ? Integer.MAX_VALUE : years[(int) ((long) shard * years.length / shardCount)];
+        }
+
+        partitions = emptyPartitions(shardCount);
+
+        for(Novel novel : novels)
+        {
+            partitions.get(yearShard(firstYears, novel.getYearPublished())).add(novel);
+        }
+
+        return new ShardedBookStore(storeName, novels, newShards(storeName, partitions), firstYears, executor);
+    }
+
+    /**
+     * Returns the name of the store.
+     *
+     * @return the store name
+     */
+    public String getStoreName()
+    {
+        return storeName;
+    }
+
+    /**
+     * Returns the number of shards.
+     *
+     * @return the shard count
+     */
+    public int getShardCount()
+    {
+        return shards.length;
+    }
+
+    /**
+     * Adds a novel to the shard it belongs to.
+     *
+     * @param novel the novel to add
+     * @throws IllegalArgumentException if a novel with the same title is already stocked
+     */
+    public void addNovel(final Novel novel)
+    {
+        if(novel == null || novel.getTitle() == null)
+        {
+            throw new IllegalArgumentException("Novel and its title cannot be null");
+        }
+
+        writeLock.lock();
+
+        try
+        {
+            if(firstYears != null && getNovel(novel.getTitle()) != null)
+            {
+                throw new IllegalArgumentException("Novel already stocked: " + novel.getTitle());
+            }
+
+            shards[shardOf(novel)].addNovel(novel);
+            rows.put(novel.getTitle(), nextRow++);
+        }
+        finally
+        {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Removes the novel with the given title.
+     *
+     * @param title the exact title of the novel to remove
+     * @return true if a novel was removed
+     */
+    public boolean removeNovel(final String title)
+    {
+        writeLock.lock();
+
+        try
+        {
+            final boolean removed;
+
+            if(firstYears == null)
+            {
+                removed = shards[titleShard(title)].removeNovel(title);
+            }
+            else
+            {
+                removed = scatter(0, shards.length, shard -> shard.removeNovel(title)).contains(true);
+            }
+
+            if(removed)
+            {
+                rows.remove(title);
+            }
+
+            return removed;
+        }
+        finally
+        {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Returns the novel with the given title.
+     *
+     * @param title the exact title to look up
+     * @return the novel with that title, or null if none is stocked
+     */
+    public Novel getNovel(final String title)
+    {
+        if(firstYears == null)
+        {
+            return shards[titleShard(title)].getNovel(title);
+        }
+
+        for(Novel novel : scatter(0, shards.length, shard -> shard.getNovel(title)))
+        {
+            if(novel != null)
+            {
+                return novel;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Returns the number of novels in every shard together.
+     *
+     * @return the number of novels stocked
+     */
+    public int getNovelCount()
+    {
+        int count;
+
+        count = 0;
+
+        for(BookStore<Novel> shard : shards)
+        {
+            count += shard.getNovelCount();
+        }
+
+        return count;
+    }
+
+    /**
+     * Counts the titles that contain the word, ignoring case, summing the count of every shard.
+     *
+     * @param word the text the titles must contain
+     * @return the number of matching titles
+     */
+    public int howManyBooksContain(final String word)
+    {
+        return scatter(0, shards.length, shard -> shard.howManyBooksContain(word)).stream()
+                                                                                .mapToInt(Integer::intValue)
+                                                                                .sum();
+    }
+
+    /**
+     * Returns whether any novel was published in the given year, asking only the shard
+     * covering that year when the store is partitioned by year.
+     *
+     * @param year the year of publication
+     * @return true if a novel was published that year
+     */
+    public boolean isThereABookWrittenIn(final int year)
+    {
+        if(firstYears != null)
+        {
+            return shards[yearShard(year)].isThereABookWrittenIn(year);
+        }
+
+        return scatter(0, shards.length, shard -> shard.isThereABookWrittenIn(year)).contains(true);
+    }
+
+    /**
+     * Returns the percentage of novels published between the given years, inclusive.
+     * The counts in range are summed over the shards that cover those years and divided
+     * by the size of the whole catalog.
+     *
+     * @param lowerBound the first year of the range
+     * @param upperBound the last year of the range
+     * @return the percentage of novels published in the range
+     */
+    public double whichPercentWrittenBetween(final int lowerBound,
+                                             final int upperBound)
+    {
+        final int total;
+        int       inRange;
+
+        total   = getNovelCount();
+        inRange = 0;
+
+        if(lowerBound <= upperBound)
+        {
+            for(int count : scatter(firstShardFor(lowerBound),
+                                    lastShardFor(upperBound) + 1,
+                                    shard -> shard.countBooksWrittenBetween(lowerBound, upperBound)))
+            {
+                inRange += count;
+            }
+        }
+
+        return ((double) inRange / (double) total) * PERCENTAGE_CONVERTOR;
+    }
+
+    /**
+     * Returns the oldest novel, the oldest of every shard's oldest. Ties go to the novel
+     * stocked first, as in a single store. A store partitioned by year only asks its first
+     * non-empty shard, which holds every novel of the earliest year.
+     *
+     * @return the oldest novel
+     * @throws java.util.NoSuchElementException if the store has no novels
+     */
+    public Novel getOldestBook()
+    {
+        final List<Novel> oldest;
+
+        if(firstYears != null)
+        {
+            for(BookStore<Novel> shard : shards)
+            {
+                if(shard.getNovelCount() > 0)
+                {
+                    return shard.getOldestBook();
+                }
+            }
+
+            return shards[0].getOldestBook();
+        }
+
+        oldest = scatter(0, shards.length, shard -> shard.getNovelCount() == 0 ? null : shard.getOldestBook());
+
+        return oldest.stream()
+                     .filter(novel -> novel != null)
+                     .min(Comparator.comparingInt(Novel::getYearPublished).thenComparing(catalogOrder))
+                     .orElseGet(shards[0]::getOldestBook);
+    }
+
+    /**
+     * Returns the novels published in the decade containing the given year, in order of
+     * publication and then in catalog order. Only the shards covering that decade are
+     * asked when the store is partitioned by year.
+     *
+     * @param decade any year of the decade
+     * @return the novels published in that decade
+     */
+    public List<Novel> getGroupByDecade(final int decade)
+    {
+        final int startOfDecade;
+
+        startOfDecade = decade / DECADE * DECADE;
+
+        return mergeSorted(scatter(firstShardFor(startOfDecade),
+                                   lastShardFor(startOfDecade + DECADE - 1) + 1,
+                                   shard -> shard.streamGroupByDecade(decade).toList()),
+                           Comparator.comparingInt(Novel::getYearPublished).thenComparing(catalogOrder));
+    }
+
+    /**
+     * Prints the titles of all the novels published in the decade containing the given
+     * year, in order of publication and then in catalog order.
+     *
+     * @param decade any year of the decade
+     */
+    public void printGroupByDecade(final int decade)
+    {
+        BookStore.printToConsole(out -> printGroupByDecade(decade, out));
+    }
+
+    /**
+     * Writes the titles of all the novels published in the decade containing the given
+     * year, in order of publication and then in catalog order, one per line.
+     *
+     * @param decade any year of the decade
+     * @param out    where to write the titles
+     * @throws IOException if writing to {@code out} fails
+     */
+    public void printGroupByDecade(final int        decade,
+                                   final Appendable out) throws IOException
+    {
+        for(Novel novel : getGroupByDecade(decade))
+        {
+            out.append(novel.getTitle()).append(LINE_SEPARATOR);
+        }
+    }
+
+    /**
+     * Returns the novels whose title has the given length, merged in catalog order.
+     *
+     * @param length the title length
+     * @return the matching novels
+     */
+    public List<Novel> getBooksThisLength(final int length)
+    {
+        return mergeSorted(scatter(0, shards.length, shard -> shard.getBooksThisLength(length)), catalogOrder);
+    }
+
+    /**
+     * Returns a stream of the novels whose title contains the text, ignoring case, merged
+     * from every shard's title index in catalog order.
+     *
+     * @param title the text the titles must contain
+     * @return the matching novels, in catalog order
+     */
+    public Stream<Novel> streamBookTitle(final String title)
+    {
+        return mergeSorted(scatter(0, shards.length, shard -> shard.streamBookTitle(title).toList()), catalogOrder).stream();
+    }
+
+    /**
+     * Prints all titles that contain the text, ignoring case, in catalog order.
+     *
+     * @param title the text the titles must contain
+     */
+    public void printBookTitle(final String title)
+    {
+        BookStore.printToConsole(out -> printBookTitle(title, out));
+    }
+
+    /**
+     * Writes all titles that contain the text, ignoring case, in catalog order, one per line.
+     *
+     * @param title the text the titles must contain
+     * @param out   where to write the titles
+     * @throws IOException if writing to {@code out} fails
+     */
+    public void printBookTitle(final String     title,
+                               final Appendable out) throws IOException
+    {
+        for(Novel novel : streamBookTitle(title).toList())
+        {
+            out.append(novel.getTitle()).append(LINE_SEPARATOR);
+        }
+    }
+
+    /**
+     * Returns the first novel with the longest title, the longest of every shard's longest.
+     * Ties go to the novel stocked first, as in a single store.
+     *
+     * @return the first novel in catalog order among those with the longest title
+     * @throws java.util.NoSuchElementException if the store has no novels
+     */
+    public Novel getLongestBook()
+    {
+        final List<Novel> longest;
+
+        longest = scatter(0, shards.length, shard -> shard.getNovelCount() == 0 ? null : shard.getLongestBook());
+
+        return longest.stream()
+                      .filter(novel -> novel != null)
+                      .min(Comparator.comparingInt((Novel novel) -> novel.getTitle().length())
+                                     .reversed()
+                                     .thenComparing(catalogOrder))
+                      .orElseGet(shards[0]::getLongestBook);
+    }
+
+    /**
+     * Prints the title of the first novel with the longest title.
+     */
+    public void printLongest()
+    {
+        BookStore.printToConsole(this::printLongest);
+    }
+
+    /**
+     * Writes the title of the first novel with the longest title on one line.
+     *
+     * @param out where to write the title
+     * @throws IOException if writing to {@code out} fails
+     */
+    public void printLongest(final Appendable out) throws IOException
+    {
+        out.append(getLongestBook().getTitle()).append(LINE_SEPARATOR);
+    }
+
+    /**
+     * Returns every novel in catalog order, merged from every shard.
+     *
+     * @return the novels in the order they were stocked
+     */
+    public List<Novel> getNovels()
+    {
+        return mergeSorted(scatter(0, shards.length, BookStore::getNovels), catalogOrder);
+    }
+
+    /**
+     * Prints all the titles in UPPERCASE, in catalog order.
+     */
+    public void printAllTitles()
+    {
+        BookStore.printToConsole(this::printAllTitles);
+    }
+
+    /**
+     * Writes all the titles in UPPERCASE, in catalog order, one per line.
+     *
+     * @param out where to write the titles
+     * @throws IOException if writing to {@code out} fails
+     */
+    public void printAllTitles(final Appendable out) throws IOException
+    {
+        for(Novel novel : getNovels())
+        {
+            out.append(novel.getTitle().toUpperCase()).append(LINE_SEPARATOR);
+        }
+    }
+
+    /**
+     * Returns every novel in alphabetical order, merged from every shard's cached
+     * alphabetical view. Titles that compare equal keep catalog order.
+     *
+     * @return the novels sorted by title, ignoring case
+     */
+    public List<Novel> getNovelsInAlphaOrder()
+    {
+        return mergeSorted(scatter(0, shards.length, BookStore::getNovelsInAlphaOrder),
+                           Comparator.<Novel>naturalOrder().thenComparing(catalogOrder));
+    }
+
+    /**
+     * Prints all the titles in alphabetical order, merged from every shard's cached
+     * alphabetical view.
+     */
+    public void printTitlesInAlphaOrder()
+    {
+        BookStore.printToConsole(this::printTitlesInAlphaOrder);
+    }
+
+    /**
+     * Writes all the titles in alphabetical order, one per line. Titles that compare
+     * equal keep catalog order.
+     *
+     * @param out where to write the titles
+     * @throws IOException if writing to {@code out} fails
+     */
+    public void printTitlesInAlphaOrder(final Appendable out) throws IOException
+    {
+        for(Novel novel : getNovelsInAlphaOrder())
+        {
+            out.append(novel.getTitle()).append(LINE_SEPARATOR);
+        }
+    }
+
+    /*
+     * Returns the shard a novel belongs to.
+     */
+    private int shardOf(final Novel novel)
+    {
+        return firstYears == null ? titleShard(novel.getTitle()) : yearShard(novel.getYearPublished());
+    }
+
+    /*
+     * Returns the shard a title hashes to. A null title, which no novel has, maps to the
+     * first shard, so looking it up finds nothing as in a single store.
+     */
+    private int titleShard(final String title)
+    {
+        return title == null ? 0 : Math.floorMod(title.hashCode(), shards.length);
+    }
+
+    /*
+     * Returns the catalog row of a novel. A novel removed while a query was merging sorts
+     * after every stocked one.
+     */
+    private long rowOf(final Novel novel)
+    {
+        return rows.getOrDefault(novel.getTitle(), NOT_STOCKED);
+    }
+
+    /*
+     * Returns the shard covering a year.
+     */
+    private int yearShard(final int year)
+    {
+        return yearShard(firstYears, year);
+    }
+
+    /*
+     * Returns the shard covering a year: the number of shard boundaries at or before it.
+     */
+    private static int yearShard(final int[] firstYears, final int year)
+    {
+        int low;
+        int high;
+
+        low  = 0;
+        high = firstYears.length;
+
+        while(low < high)
+        {
+            final int middle;
+
+            middle = (low + high) >>> 1;
+
+            if(firstYears[middle] <= year)
+            {
+                low = middle + 1;
+            }
+            else
+            {
+                high = middle;
+            }
+        }
+
+        return low;
+    }
+
+    /*
+     * Returns the first shard that can hold novels from the given year onwards.
+     */
+    private int firstShardFor(final int year)
+    {
+        return firstYears == null ? 0 : yearShard(year);
+    }
+
+    /*
+     * Returns the last shard that can hold novels up to the given year.
+     */
+    private int lastShardFor(final int year)
+    {
+        return firstYears == null ? shards.length - 1 : yearShard(year);
+    }
+
+    /*
+     * Runs a query on the shards from first, inclusive, to last, exclusive, concurrently,
+     * and returns their answers in shard order. A single shard runs in the calling thread.
+     */
+    private <R> List<R> scatter(final int                           first,
+                                final int                           last,
+                                final Function<BookStore<Novel>, R> query)
+    {
+        final List<CompletableFuture<R>> pending;
+        final List<R>                    answers;
+
+        if(last - first == 1)
+        {
+            return Collections.singletonList(query.apply(shards[first]));
+        }
+
+        pending = new ArrayList<>(Math.max(0, last - first));
+        answers = new ArrayList<>(Math.max(0, last - first));
+
+        for(int shard = first; shard < last; ++shard)
+        {
+            final BookStore<Novel> target;
+
+            target = shards[shard];
+            pending.add(CompletableFuture.supplyAsync(() -> query.apply(target), executor));
+        }
+
+        try
+        {
+            for(CompletableFuture<R> answer : pending)
+            {
+                answers.add(answer.join());
+            }
+        }
+        catch(final CompletionException e)
+        {
+            if(e.getCause() instanceof RuntimeException cause)
+            {
+                throw cause;
+            }
+
+            throw e;
+        }
+
+        return answers;
+    }
+
+    /*
+     * Merges lists that are each sorted by the comparator into one sorted list. Equal
+     * novels keep shard order.
+     */
+    private static List<Novel> mergeSorted(final List<List<Novel>> parts,
+                                           final Comparator<Novel> comparator)
+    {
+        final PriorityQueue<Cursor> heads;
+        final List<Novel>           merged;
+
+        heads  = new PriorityQueue<>(Math.max(1, parts.size()),
+                                     Comparator.comparing((Cursor cursor) -> cursor.part().get(cursor.position()), comparator)
+                                               .thenComparingInt(Cursor::partIndex));
+        merged = new ArrayList<>();
+
+        for(int i = 0; i < parts.size(); ++i)
+        {
+            if(!parts.get(i).isEmpty())
+            {
+                heads.add(new Cursor(parts.get(i), i, 0));
+            }
+        }
+
+        while(!heads.isEmpty())
+        {
+            final Cursor head;
+
+            head = heads.poll();
+            merged.add(head.part().get(head.position()));
+
+            if(head.position() + 1 < head.part().size())
+            {
+                heads.add(new Cursor(head.part(), head.partIndex(), head.position() + 1));
+            }
+        }
+
+        return merged;
+    }
+
+    /*
+     * Checks the arguments shared by both factories. Titles must be unique across the
+     * whole catalog, not just within each shard, since a year-partitioned store may put
+     * two novels with the same title in different shards.
+     */
+    private static void validate(final List<Novel> novels,
+                                 final int         shardCount,
+                                 final Executor    executor)
+    {
+        final Set<String> titles;
+
+        if(novels == null || executor == null)
+        {
+            throw new IllegalArgumentException("Novels and executor cannot be null");
+        }
+
+        if(shardCount < 1)
+        {
+            throw new IllegalArgumentException("Shard count must be positive: " + shardCount);
+        }
+
+        titles = new HashSet<>(novels.size() * 2);
+
+        for(Novel novel : novels)
+        {
+            if(novel == null || novel.getTitle() == null)
+            {
+                throw new IllegalArgumentException("Novel and its title cannot be null");
+            }
+
+            if(!titles.add(novel.getTitle()))
+            {
+                throw new IllegalArgumentException("Novel already stocked: " + novel.getTitle());
+            }
+        }
+    }
+
+    /*
+     * Returns one empty list per shard.
+     */
+    private static List<List<Novel>> emptyPartitions(final int shardCount)
+    {
+        final List<List<Novel>> partitions;
+
+        partitions = new ArrayList<>(shardCount);
+
+        for(int i = 0; i < shardCount; ++i)
+        {
+            partitions.add(new ArrayList<>());
+        }
+
+        return partitions;
+    }
+
+    /*
+     * Creates one shard per partition, named after the store.
+     */
+    @SuppressWarnings("unchecked")
+    private static BookStore<Novel>[] newShards(final String            storeName,
+                                                final List<List<Novel>> partitions)
+    {
+        final BookStore<Novel>[] shards;
+
+        shards = (BookStore<Novel>[]) new BookStore<?>[partitions.size()];
+
+        for(int i = 0; i < shards.length; ++i)
+        {
+            shards[i] = new BookStore<>(storeName + " shard " + i, partitions.get(i));
+        }
+
+        return shards;
+    }
+
+    /*
+     * The next unmerged novel of one shard's sorted list.
+     */
+    private record Cursor(List<Novel> part, int partIndex, int position)
+    {
+    }
+}
@@ -0,0 +1,101 @@
+package bookstore;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * The {@code SyntheticCatalog} class builds deterministic catalogs of any size for
+ * benchmarks and load tests. Titles are drawn from a small vocabulary, so title searches
+ * match realistic fractions of the catalog, and end in the row number, so every title is
+ * unique.
+ *
+ * @version 1.0
+ */
+public final class SyntheticCatalog
+{
+    /**
+     * The first year any synthetic novel can be published in.
+     */
+    public static final int FIRST_YEAR = 1800;
+
+    /**
+     * The number of years synthetic novels are spread over.
+     */
+    public static final int YEAR_SPAN = 225;
+
+    /**
+     * The number of distinct synthetic authors.
+     */
+    public static final int AUTHOR_COUNT = 5_000;
+
+    private static final long SEED            = 2522L;
+    private static final int  MIN_TITLE_WORDS = 1;
+    private static final int  MAX_TITLE_WORDS = 6;
+
+    private static final String[] WORDS = {
+            "the", "of", "and", "heart", "night", "river", "house", "king", "garden", "war",
+            "road", "light", "shadow", "winter", "sea", "stone", "glass", "fire", "city", "bird",
+            "song", "blood", "iron", "golden", "silent", "last", "lost", "secret", "wild", "crown"
+    };
+
+    private SyntheticCatalog()
+    {
+    }
+
+    /**
+     * Builds the same catalog of the given size on every call.
+     *
+     * @param count the number of novels
+     * @return a new, modifiable list of novels
+     */
+    public static List<Novel> novels(final int count)
+    {
+        final Random        random;
+        final List<Novel>   novels;
+        final StringBuilder title;
+
+        if(count < 0)
+        {
+            throw new IllegalArgumentException("Count cannot be negative: " + count);
+        }
+
+        random = new Random(SEED);
+        novels = new ArrayList<>(count);
+        title  = new StringBuilder();
+
+        for(int i = 0; i < count; ++i)
+        {
+            final int words;
+
+            words = MIN_TITLE_WORDS + random.nextInt(MAX_TITLE_WORDS);
+
+            title.setLength(0);
+
+            for(int word = 0; word < words; ++word)
+            {
+                title.append(WORDS[random.nextInt(WORDS.length)]).append(' ');
+            }
+
+            // the row number keeps titles unique so the title map holds every novel
+            title.append(i);
+
+            novels.add(new Novel(title.toString(),
+                                 author(random.nextInt(AUTHOR_COUNT)),
+                                 FIRST_YEAR + random.nextInt(YEAR_SPAN)));
+        }
+
+        return novels;
+    }
+
+    /**
+     * Returns the name of one of the synthetic authors.
+     *
+     * @param index the author's number, from 0 to {@link #AUTHOR_COUNT} - 1
+     * @return the author's name
+     */
+    public static String author(final int index)
+    {
+        return "Author " + index;
+    }
+}
@@ -0,0 +1,278 @@
+package bookstore;
+
+import java.util.Arrays;
+
+/**
+ * The {@code TitleTable} class maps exact titles to the rows of a {@link NovelTable} with
+ * open addressing. Rows and each title's hash sit in two parallel {@code int} arrays, and
+ * keys are compared against the table's title buffer, so a lookup is a few array reads
+ * and no title is ever held as a separate string.
+ * <p>
+ * Slots are found by linear probing from the mixed hash. The cached hash is compared
+ * before the title itself, so probing past other titles rarely touches their characters.
+ * Removal shifts later entries of the probe run back instead of leaving tombstones, so
+ * lookups never slow down as titles come and go. The table doubles once it is half full.
+ * <p>
+ * As with a {@link java.util.HashMap}, looking up or removing a null title finds nothing
+ * rather than failing.
+ * <p>
+ * There is no minimal perfect hash build for frozen catalogs. A store's catalog stays
+ * open to {@code addNovel} and {@code removeNovel}, so it is never frozen, and at half
+ * load a successful lookup already averages under two slot reads.
+ *
+ * @version 1.0
+ */
+final class TitleTable
+{
+    private static final int MIN_CAPACITY  = 16;
+    private static final int MAX_CAPACITY  = 1 << 30;
+    private static final int LOAD_DIVISOR  = 2;
+    private static final int GROWTH_FACTOR = 2;
+    private static final int GOLDEN_RATIO  = 0x9E3779B9;
+
+    private final NovelTable table;
+    private int[]            rows;
+    private int[]            hashes;
+    private int              size;
+
+    /**
+     * Constructs an empty {@code TitleTable} over the rows of a novel table, holding the
+     * expected number of titles without growing.
+     *
+     * @param table        the table whose titles are the keys
+     * @param expectedSize the number of titles expected
+     */
+    TitleTable(final NovelTable table,
+               final int        expectedSize)
+    {
+        this.table = table;
+        allocate(capacityFor(expectedSize));
+    }
+
+    /**
+     * Returns the row holding the given title.
+     *
+     * @param title the exact title
+     * @return the row, or {@link NovelTable#NO_ROW} if the title is not in the table
+     */
+    int get(final String title)
+    {
+        final int slot;
+
+        slot = find(title);
+
+        return slot < 0 ? NovelTable.NO_ROW : rows[slot];
+    }
+
+    /**
+     * Returns whether the table holds the given title.
+     *
+     * @param title the exact title
+     * @return true if the title is in the table
+     */
+    boolean containsKey(final String title)
+    {
+        return find(title) >= 0;
+    }
+
+    /**
+     * Maps the title of a row to that row, replacing any row the title was mapped to.
+     *
+     * @param row the row whose title is the key
+     * @return the row previously mapped to the title, or {@link NovelTable#NO_ROW} if there was none
+     */
+    int put(final int row)
+    {
+        final int hash;
+        final int mask;
+        int       slot;
+
+        if((size + 1) * LOAD_DIVISOR > rows.length)
+        {
+            resize(rows.length * GROWTH_FACTOR);
+        }
+
+        hash = mix(table.titleHashAt(row));
+        mask = rows.length - 1;
+        slot = hash & mask;
+
+        while(rows[slot] != NovelTable.NO_ROW)
+        {
+            if(hashes[slot] == hash && table.compareTitles(rows[slot], row) == 0)
+            {
+                final int previous;
+
+                previous   = rows[slot];
+                rows[slot] = row;
+
+                return previous;
+            }
+
+            slot = (slot + 1) & mask;
+        }
+
+        rows[slot]   = row;
+        hashes[slot] = hash;
+        size++;
+
+        return NovelTable.NO_ROW;
+    }
+
+    /**
+     * Removes a title from the table.
+     *
+     * @param title the exact title
+     * @return the row the title was mapped to, or {@link NovelTable#NO_ROW} if it was not in the table
+     */
+    int remove(final String title)
+    {
+        final int mask;
+        final int removed;
+        int       hole;
+        int       slot;
+
+        hole = find(title);
+
+        if(hole < 0)
+        {
+            return NovelTable.NO_ROW;
+        }
+
+        mask    = rows.length - 1;
+        removed = rows[hole];
+        slot    = (hole + 1) & mask;
+
+        while(rows[slot] != NovelTable.NO_ROW)
+        {
+            final int home;
+
+            home = hashes[slot] & mask;
+
+            // an entry may fill the hole only if the hole lies on its probe path,
+            // that is, cyclically between its home slot and where it is now
+            if(((slot - home) & mask) >= ((slot - hole) & mask))
+            {
+                rows[hole]   = rows[slot];
+                hashes[hole] = hashes[slot];
+                hole         = slot;
+            }
+
+            slot = (slot + 1) & mask;
+        }
+
+        rows[hole]   = NovelTable.NO_ROW;
+        hashes[hole] = 0;
+        size--;
+
+        return removed;
+    }
+
+    /**
+     * Returns the number of titles in the table.
+     *
+     * @return the number of titles
+     */
+    int size()
+    {
+        return size;
+    }
+
+    /*
+     * Returns the slot holding the title, or -1 if it is not in the table or is null.
+     */
+    private int find(final String title)
+    {
+        final int hash;
+        final int mask;
+        int       slot;
+
+        if(title == null)
+        {
+            return -1;
+        }
+
+        hash = mix(title.hashCode());
+        mask = rows.length - 1;
+        slot = hash & mask;
+
+        while(rows[slot] != NovelTable.NO_ROW)
+        {
+            if(hashes[slot] == hash && table.titleEquals(rows[slot], title))
+            {
+                return slot;
+            }
+
+            slot = (slot + 1) & mask;
+        }
+
+        return -1;
+    }
+
+    /*
+     * Moves every entry into new arrays of the given capacity.
+     */
+    private void resize(final int capacity)
+    {
+        final int[] oldRows;
+        final int[] oldHashes;
+
+        oldRows   = rows;
+        oldHashes = hashes;
+
+        allocate(capacity);
+
+        for(int i = 0; i < oldRows.length; ++i)
+        {
+            if(oldRows[i] != NovelTable.NO_ROW)
+            {
+                int slot;
+
+                slot = oldHashes[i] & (capacity - 1);
+
+                while(rows[slot] != NovelTable.NO_ROW)
+                {
+                    slot = (slot + 1) & (capacity - 1);
+                }
+
+                rows[slot]   = oldRows[i];
+                hashes[slot] = oldHashes[i];
+            }
+        }
+    }
+
+    /*
+     * Replaces the arrays with empty ones of the given capacity.
+     */
+    private void allocate(final int capacity)
+    {
+        rows   = new int[capacity];
+        hashes = new int[capacity];
+
+        Arrays.fill(rows, NovelTable.NO_ROW);
+    }
+
+    /*
+     * Returns the smallest power of two that keeps the expected size at most half full.
+     */
+    private static int capacityFor(final int expectedSize)
+    {
+        final long wanted;
+
+        wanted = Math.max(MIN_CAPACITY, (long) expectedSize * LOAD_DIVISOR);
+
+        return (int) Math.min(MAX_CAPACITY, Long.highestOneBit(wanted - 1) << 1);
+    }
+
+    /*
+     * Spreads a title's String.hashCode, which the table computes from its characters the
+     * same way, so that the low bits used to pick a slot depend on every bit of it.
+     */
+    private static int mix(final int hashCode)
+    {
+        final int mixed;
+
+        mixed = hashCode * GOLDEN_RATIO;
+
+        return mixed ^ (mixed >>> 16);
+    }
+}
@@ -0,0 +1,563 @@
+package bookstore;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The {@code TitleTrigramIndex} class indexes the rows of a {@link NovelTable} by the
+ * trigrams of their case-folded titles, read straight from the table's folded title
+ * buffer. A substring query intersects the posting lists of its own trigrams and only
+ * verifies the surviving candidates, instead of scanning every title.
+ * <p>
+ * Postings hold row numbers, which grow in catalog order, so matches are always reported
+ * in catalog order. A removed row stays in the postings and is skipped during
+ * verification; the store rebuilds the index when it compacts the table.
+ * <p>
+ * The same postings filter fuzzy searches. A substring within {@code k} edits of a query
+ * of length {@code m} keeps at least {@code m - 2 - 3k} of the query's trigrams, so only
+ * titles sharing that many need their edit distance computed.
+ *
+ * @version 1.0
+ */
+final class TitleTrigramIndex
+{
+    private static final int   GRAM_LENGTH      = 3;
+    private static final int   CHAR_BITS        = 16;
+    private static final int   INITIAL_CAPACITY = 16;
+    private static final int   GROWTH_FACTOR    = 2;
+    private static final int[] NO_ROWS          = new int[0];
+
+    private final NovelTable          table;
+    private final Map<Long, Postings> postings;
+
+    /**
+     * Constructs a {@code TitleTrigramIndex} containing every live row of the table.
+     *
+     * @param table the table to index
+     */
+    TitleTrigramIndex(final NovelTable table)
+    {
+        this.table    = table;
+        this.postings = new HashMap<>();
+
+        for(int row : table.liveRows())
+        {
+            add(row);
+        }
+    }
+
+    /**
+     * Adds a row to the index. The row must be newer than every row already indexed.
+     *
+     * @param row the row to add
+     */
+    void add(final int row)
+    {
+        final int length;
+
+        length = table.foldedLengthAt(row);
+
+        for(int i = 0; i + GRAM_LENGTH <= length; ++i)
+        {
+            postings.computeIfAbsent(trigram(row, i), key -> new Postings()).add(row);
+        }
+    }
+
+    /**
+     * Returns every live row whose title contains the query, ignoring case.
+     *
+     * @param query    the text to search for
+     * @param executor runs the verification of the candidates
+     * @return the matching rows, in catalog order, and the number of titles checked
+     */
+    Examined<int[]> search(final String          query,
+                           final ChunkedExecutor executor)
+    {
+        final String folded;
+        final int[]  candidates;
+        final int[]  found;
+
+        folded     = Novel.foldTitle(query);
+        candidates = candidates(folded);
+
+        found = executor.reduce(candidateCount(candidates), (from, to) ->
+        {
+            final int[] matches;
+            int         matchCount;
+
+            matches    = new int[to - from];
+            matchCount = 0;
+
+            for(int i = from; i < to; ++i)
+            {
+                final int row;
+
+                row = candidates == null ? i : candidates[i];
+
+                if(matches(row, folded))
+                {
+                    matches[matchCount++] = row;
+                }
+            }
+
+            return Arrays.copyOf(matches, matchCount);
+        }, TitleTrigramIndex::concat);
+
+        return new Examined<>(found, examinedCount(candidates));
+    }
+
+    /**
+     * Counts the live rows whose title contains the query, ignoring case.
+     *
+     * @param query    the text to search for
+     * @param executor runs the verification of the candidates
+     * @return the number of matching rows and the number of titles checked
+     */
+    Examined<Integer> count(final String          query,
+                            final ChunkedExecutor executor)
+    {
+        final String folded;
+        final int[]  candidates;
+        final int    found;
+
+        folded     = Novel.foldTitle(query);
+        candidates = candidates(folded);
+
+        found = executor.reduce(candidateCount(candidates), (from, to) ->
+        {
+            int counter;
+
+            counter = 0;
+
+            for(int i = from; i < to; ++i)
+            {
+                if(matches(candidates == null ? i : candidates[i], folded))
+                {
+                    counter++;
+                }
+            }
+
+            return counter;
+        }, Integer::sum);
+
+        return new Examined<>(found, examinedCount(candidates));
+    }
+
+    /**
+     * Returns every live row with a part of its title within the given number of edits of
+     * the query, ignoring case, together with the smallest such distance. Candidates are
+     * filtered by shared trigrams when the query is long enough for the filter to exclude
+     * anything, and verified with Sellers' algorithm.
+     *
+     * @param query    the text to search for
+     * @param maxEdits the largest number of insertions, deletions and substitutions allowed
+     * @param executor runs the verification of the candidates
+     * @return the matches, in catalog order, and the number of titles checked
+     */
+    Examined<List<Match>> fuzzySearch(final String          query,
+                                      final int             maxEdits,
+                                      final ChunkedExecutor executor)
+    {
+        final String      folded;
+        final int[]       candidates;
+        final List<Match> found;
+
+        folded     = Novel.foldTitle(query);
+        candidates = fuzzyCandidates(folded, maxEdits);
+
+        found = executor.reduce(candidateCount(candidates), (from, to) ->
+        {
+            final List<Match> matches;
+
+            matches = new ArrayList<>();
+
+            for(int i = from; i < to; ++i)
+            {
+                final int row;
+
+                row = candidates == null ? i : candidates[i];
+
+                if(table.isLive(row))
+                {
+                    final int distance;
+
+                    distance = substringDistance(folded, row, maxEdits);
+
+                    if(distance <= maxEdits)
+                    {
+                        matches.add(new Match(row, distance));
+                    }
+                }
+            }
+
+            return matches;
+        }, (left, right) ->
+        {
+            left.addAll(right);
+            return left;
+        });
+
+        return new Examined<>(found, examinedCount(candidates));
+    }
+
+    /**
+     * Returns whether the index can narrow a search for the query down from every title,
+     * which needs the query to contain at least one trigram.
+     *
+     * @param query the text to search for
+     * @return true if a search for the query is answered from postings
+     */
+    static boolean canNarrow(final String query)
+    {
+        return query.length() >= GRAM_LENGTH;
+    }
+
+    /*
+     * Returns the number of rows to verify for the given candidates.
+     */
+    private int candidateCount(final int[] candidates)
+    {
+        return candidates == null ? table.rowCount() : candidates.length;
+    }
+
+    /*
+     * Returns the number of titles checked for the given candidates: every live title when
+     * the postings could not narrow the search, otherwise each candidate from the postings.
+     */
+    private int examinedCount(final int[] candidates)
+    {
+        return candidates == null ? table.size() : candidates.length;
+    }
+
+    /*
+     * Returns the sorted rows containing all trigrams of the folded query, or null when the
+     * query is too short to have any trigram and every row is a candidate.
+     */
+    private int[] candidates(final String folded)
+    {
+        final List<Postings> lists;
+        int[]                result;
+        int                  resultSize;
+
+        if(folded.length() < GRAM_LENGTH)
+        {
+            return null;
+        }
+
+        lists = new ArrayList<>();
+
+        for(int i = 0; i + GRAM_LENGTH <= folded.length(); ++i)
+        {
+            final Postings list;
+
+            list = postings.get(trigram(folded, i));
+
+            if(list == null)
+            {
+                return NO_ROWS;
+            }
+
+            if(!lists.contains(list))
+            {
+                lists.add(list);
+            }
+        }
+
+        lists.sort((first, second) -> Integer.compare(first.size, second.size));
+
+        result     = Arrays.copyOf(lists.getFirst().rows, lists.getFirst().size);
+        resultSize = result.length;
+
+        for(int i = 1; i < lists.size() && resultSize > 0; ++i)
+        {
+            resultSize = intersect(result, resultSize, lists.get(i));
+        }
+
+        return Arrays.copyOf(result, resultSize);
+    }
+
+    /*
+     * Returns the sorted rows sharing enough of the folded query's trigrams to be within
+     * maxEdits of it, or null when the q-gram bound is not positive and every row is a
+     * candidate. Each trigram is weighted by how often it occurs in the query,
+     * since the bound counts trigram positions.
+     */
+    private int[] fuzzyCandidates(final String folded, final int maxEdits)
+    {
+        final int                threshold;
+        final Map<Long, Integer> occurrences;
+        final int[]              shared;
+        int[]                    result;
+        int                      resultSize;
+
+        threshold = folded.length() - GRAM_LENGTH + 1 - maxEdits * GRAM_LENGTH;
+
+        if(threshold <= 0)
+        {
+            return null;
+        }
+
+        occurrences = new HashMap<>();
+
+        for(int i = 0; i + GRAM_LENGTH <= folded.length(); ++i)
+        {
+            occurrences.merge(trigram(folded, i), 1, Integer::sum);
+        }
+
+        shared     = new int[table.rowCount()];
+        result     = new int[INITIAL_CAPACITY];
+        resultSize = 0;
+
+        for(Map.Entry<Long, Integer> entry : occurrences.entrySet())
+        {
+            final Postings list;
+
+            list = postings.get(entry.getKey());
+
+            if(list == null)
+            {
+                continue;
+            }
+
+            for(int i = 0; i < list.size; ++i)
+            {
+                final int row;
+
+                row = list.rows[i];
+
+                if(shared[row] < threshold && shared[row] + entry.getValue() >= threshold)
+                {
+                    if(resultSize == result.length)
+                    {
+                        result = Arrays.copyOf(result, result.length * GROWTH_FACTOR);
+                    }
+
+                    result[resultSize++] = row;
+                }
+
+                shared[row] += entry.getValue();
+            }
+        }
+
+        result = Arrays.copyOf(result, resultSize);
+        Arrays.sort(result);
+
+        return result;
+    }
+
+    /*
+     * Returns the smallest edit distance between the pattern and any substring of a row's
+     * folded title, or maxEdits + 1 if it is larger. This is Sellers' dynamic program: the same as
+     * Levenshtein, except a match may start at any text position. With Ukkonen's cut-off,
+     * each column is only computed down to one row past the last cell within maxEdits,
+     * since the cells below it cannot be; a column costs O(maxEdits) on average rather
+     * than O(pattern length). The loop also stops once an exact match is found.
+     */
+    private int substringDistance(final String pattern,
+                                  final int    row,
+                                  final int    maxEdits)
+    {
+        final int length;
+        final int textLength;
+        int[]     previous;
+        int[]     current;
+        int       lastActive;
+        int       best;
+
+        length     = pattern.length();
+        textLength = table.foldedLengthAt(row);
+        previous   = new int[length + 1];
+        current    = new int[length + 1];
+
+        for(int i = 0; i <= length; ++i)
+        {
+            previous[i] = i;
+        }
+
+        // the last row whose cell is within maxEdits; every row below it is out of range
+        lastActive = Math.min(maxEdits, length);
+        best       = lastActive == length ? length : maxEdits + 1;
+
+        for(int j = 0; j < textLength && best > 0; ++j)
+        {
+            final char  textChar;
+            final int   bottom;
+            final int[] swap;
+
+            textChar = table.foldedCharAt(row, j);
+            bottom   = Math.min(lastActive + 1, length);
+
+            if(bottom > lastActive)
+            {
+                // not computed in the previous column, so only known to be out of range
+                previous[bottom] = maxEdits + 1;
+            }
+
+            current[0] = 0;
+
+            for(int i = 1; i <= bottom; ++i)
+            {
+                final int substitution;
+
+                substitution = previous[i - 1] + (pattern.charAt(i - 1) == textChar ? 0 : 1);
+                current[i]   = Math.min(substitution, Math.min(previous[i], current[i - 1]) + 1);
+            }
+
+            lastActive = bottom;
+
+            while(current[lastActive] > maxEdits)
+            {
+                lastActive--;
+            }
+
+            if(lastActive == length)
+            {
+                best = Math.min(best, current[length]);
+            }
+
+            swap     = previous;
+            previous = current;
+            current  = swap;
+        }
+
+        return Math.min(best, maxEdits + 1);
+    }
+
+    /*
+     * Intersects the first size rows of target with the postings in place and returns the new size.
+     */
+    private static int intersect(final int[] target, final int size, final Postings list)
+    {
+        int kept;
+        int i;
+        int j;
+
+        kept = 0;
+        i    = 0;
+        j    = 0;
+
+        while(i < size && j < list.size)
+        {
+            if(target[i] < list.rows[j])
+            {
+                i++;
+            }
+            else if(target[i] > list.rows[j])
+            {
+                j++;
+            }
+            else
+            {
+                target[kept++] = target[i];
+                i++;
+                j++;
+            }
+        }
+
+        return kept;
+    }
+
+    /*
+     * Verifies a candidate against the folded query, skipping removed rows.
+     */
+    private boolean matches(final int row, final String folded)
+    {
+        return table.isLive(row) && table.foldedTitleContains(row, folded);
+    }
+
+    /*
+     * Joins the matches of two neighbouring chunks, keeping their order.
+     */
+    private static int[] concat(final int[] left, final int[] right)
+    {
+        final int[] joined;
+
+        if(right.length == 0)
+        {
+            return left;
+        }
+
+        joined = Arrays.copyOf(left, left.length + right.length);
+        System.arraycopy(right, 0, joined, left.length, right.length);
+
+        return joined;
+    }
+
+    /*
+     * Packs the three characters starting at index into a single key.
+     */
+    private static long trigram(final String folded, final int index)
+    {
+        return ((long) folded.charAt(index) << (CHAR_BITS * 2)) |
+               ((long) folded.charAt(index + 1) << CHAR_BITS) |
+               folded.charAt(index + 2);
+    }
+
+    /*
+     * Packs the three characters of a row's folded title starting at index into a single key,
+     * the same key trigram(String, int) gives for the title as a string.
+     */
+    private long trigram(final int row, final int index)
+    {
+        return ((long) table.foldedCharAt(row, index) << (CHAR_BITS * 2)) |
+               ((long) table.foldedCharAt(row, index + 1) << CHAR_BITS) |
+               table.foldedCharAt(row, index + 2);
+    }
+
+    /**
+     * The answer to a search together with the number of titles checked to find it, which
+     * is every title when the query is too short for the postings to narrow it.
+     *
+     * @param value    the answer
+     * @param examined the number of titles whose text was checked
+     * @param <R>      the type of the answer
+     */
+    record Examined<R>(R value, int examined)
+    {
+    }
+
+    /**
+     * A row found by a fuzzy search.
+     *
+     * @param row      the row
+     * @param distance the fewest edits turning the query into part of its title
+     */
+    record Match(int row, int distance)
+    {
+    }
+
+    /*
+     * Growable, sorted list of rows sharing one trigram.
+     */
+    private static final class Postings
+    {
+        private int[] rows;
+        private int   size;
+
+        private Postings()
+        {
+            this.rows = new int[GROWTH_FACTOR];
+        }
+
+        /*
+         * Appends a row, ignoring repeats of the trigram within the same title.
+         */
+        private void add(final int row)
+        {
+            if(size > 0 && rows[size - 1] == row)
+            {
+                return;
+            }
+
+            if(size == rows.length)
+            {
+                rows = Arrays.copyOf(rows, rows.length * GROWTH_FACTOR);
+            }
+
+            rows[size++] = row;
+        }
+    }
+}
@@ -0,0 +1,268 @@
+package bookstore;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * The {@code YearIndex} class keeps the rows of a {@link NovelTable} sorted by year of
+ * publication in a primitive {@code int[]} column with a parallel array of row numbers.
+ * Existence and range counts are binary searches, and a range of rows is returned
+ * without looking at the rest.
+ * <p>
+ * Rows published in the same year stay in ascending order, which is catalog order, so a
+ * row is found again by binary search within its year.
+ *
+ * @version 1.0
+ */
+final class YearIndex
+{
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int GROWTH_FACTOR    = 2;
+
+    private final NovelTable table;
+    private int[]            years;
+    private int[]            rows;
+    private int              size;
+
+    /**
+     * Constructs a {@code YearIndex} containing every live row of the table.
+     *
+     * @param table the table to index
+     */
+    YearIndex(final NovelTable table)
+    {
+        final int[]  live;
+        final long[] keys;
+
+        live = table.liveRows();
+        keys = new long[live.length];
+
+        // each row is packed below its year, so one primitive sort orders by year, then row
+        for(int i = 0; i < live.length; ++i)
+        {
+            keys[i] = ((long) table.yearAt(live[i]) << Integer.SIZE) | live[i];
+        }
+
+        Arrays.sort(keys);
+
+        this.table = table;
+        this.size  = keys.length;
+        this.years = new int[Math.max(INITIAL_CAPACITY, size)];
+        this.rows  = new int[years.length];
+
+        for(int i = 0; i < size; ++i)
+        {
+            years[i] = (int) (keys[i] >> Integer.SIZE);
+            rows[i]  = (int) keys[i];
+        }
+    }
+
+    /**
+     * Adds a row after every indexed row published in the same year. The row must be
+     * newer than every row already indexed.
+     *
+     * @param row the row to add
+     */
+    void add(final int row)
+    {
+        final int year;
+        final int position;
+
+        if(size == years.length)
+        {
+            years = Arrays.copyOf(years, years.length * GROWTH_FACTOR);
+            rows  = Arrays.copyOf(rows, years.length);
+        }
+
+        year     = table.yearAt(row);
+        position = upperBound(year);
+
+        System.arraycopy(years, position, years, position + 1, size - position);
+        System.arraycopy(rows, position, rows, position + 1, size - position);
+
+        years[position] = year;
+        rows[position]  = row;
+        size++;
+    }
+
+    /**
+     * Removes a row from the index.
+     *
+     * @param row the row to remove
+     * @return true if the row was indexed
+     */
+    boolean remove(final int row)
+    {
+        final int year;
+        final int position;
+
+        year     = table.yearAt(row);
+        position = Arrays.binarySearch(rows, lowerBound(year), upperBound(year), row);
+
+        if(position < 0)
+        {
+            return false;
+        }
+
+        System.arraycopy(years, position + 1, years, position, size - position - 1);
+        System.arraycopy(rows, position + 1, rows, position, size - position - 1);
+        size--;
+
+        return true;
+    }
+
+    /**
+     * Returns whether any indexed row was published in the given year.
+     *
+     * @param year the year to look for
+     * @return true if at least one novel was published that year
+     */
+    boolean contains(final int year)
+    {
+        final int position;
+
+        position = lowerBound(year);
+
+        return position < size && years[position] == year;
+    }
+
+    /**
+     * Counts the rows published between the bounds, inclusive.
+     *
+     * @param lowerBound the first year of the range
+     * @param upperBound the last year of the range
+     * @return the number of novels published in the range
+     */
+    int countBetween(final int lowerBound, final int upperBound)
+    {
+        if(lowerBound > upperBound)
+        {
+            return 0;
+        }
+
+        return upperBound(upperBound) - lowerBound(lowerBound);
+    }
+
+    /**
+     * Returns the rows published between the bounds, inclusive, ordered by year.
+     *
+     * @param lowerBound the first year of the range
+     * @param upperBound the last year of the range
+     * @return a new array of the rows published in the range
+     */
+    int[] between(final int lowerBound, final int upperBound)
+    {
+        if(lowerBound > upperBound)
+        {
+            return new int[0];
+        }
+
+        return Arrays.copyOfRange(rows, lowerBound(lowerBound), upperBound(upperBound));
+    }
+
+    /**
+     * Returns the number of indexed rows.
+     *
+     * @return the number of rows
+     */
+    int size()
+    {
+        return size;
+    }
+
+    /**
+     * Returns the earliest year of publication.
+     *
+     * @return the smallest indexed year
+     * @throws NoSuchElementException if the index is empty
+     */
+    int earliestYear()
+    {
+        return years[firstPosition()];
+    }
+
+    /**
+     * Returns the latest year of publication.
+     *
+     * @return the largest indexed year
+     * @throws NoSuchElementException if the index is empty
+     */
+    int latestYear()
+    {
+        return years[firstPosition() + size - 1];
+    }
+
+    /**
+     * Returns the oldest row. Rows from the same year keep catalog order, so ties go to
+     * the novel stocked first.
+     *
+     * @return the first row published in the earliest year
+     * @throws NoSuchElementException if the index is empty
+     */
+    int oldest()
+    {
+        return rows[firstPosition()];
+    }
+
+    /**
+     * Returns the oldest rows, in order of publication.
+     *
+     * @param count the largest number of rows to return
+     * @return a new array of up to {@code count} of the earliest published rows
+     */
+    int[] oldest(final int count)
+    {
+        return Arrays.copyOf(rows, Math.min(count, size));
+    }
+
+    /*
+     * Returns position zero, failing if there is nothing there.
+     */
+    private int firstPosition()
+    {
+        if(size == 0)
+        {
+            throw new NoSuchElementException("No novels indexed");
+        }
+
+        return 0;
+    }
+
+    /*
+     * Returns the first position whose year is not less than the given year.
+     */
+    private int lowerBound(final int year)
+    {
+        int low;
+        int high;
+
+        low  = 0;
+        high = size;
+
+        while(low < high)
+        {
+            final int middle;
+
+            middle = (low + high) >>> 1;
+
+            if(years[middle] < year)
+            {
+                low = middle + 1;
+            }
+            else
+            {
+                high = middle;
+            }
+        }
+
+        return low;
+    }
+
+    /*
+     * Returns the first position whose year is greater than the given year.
+     */
+    private int upperBound(final int year)
+    {
+        return year == Integer.MAX_VALUE ? size : lowerBound(year + 1);
+    }
+}
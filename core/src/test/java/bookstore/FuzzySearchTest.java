@@ -0,0 +1,104 @@
+package bookstore;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests {@link BookStore#fuzzySearch(String, int, int)}: which titles match, how they are
+ * ranked, and how many are returned.
+ *
+ * @version 1.0
+ */
+class FuzzySearchTest
+{
+    private static final List<Novel> NOVELS = List.of(new Novel("The Great Gatsby", "F. Scott Fitzgerald", 1925),
+                                                      new Novel("Great Expectations", "Charles Dickens", 1861),
+                                                      new Novel("The Greatest Story", "Nobody", 2000),
+                                                      new Novel("Gatsby Returns", "Nobody", 2010),
+                                                      new Novel("Moby Dick", "Herman Melville", 1851));
+
+    @Test
+    void findsTitlesDespiteATypo()
+    {
+        final BookStore<Literature> store;
+
+        store = new BookStore<>("Test", NOVELS);
+
+        assertEquals(List.of("Gatsby Returns", "The Great Gatsby"), titles(store.fuzzySearch("Gatsbey", 1, 10)));
+        assertEquals(List.of(), titles(store.fuzzySearch("Gatsbey", 0, 10)));
+    }
+
+    @Test
+    void ranksByDistanceThenAlphabetically()
+    {
+        final BookStore<Literature> store;
+
+        store = new BookStore<>("Test", NOVELS);
+
+        // "great" is an exact substring of three titles and one edit from none other
+        assertEquals(List.of("Great Expectations", "The Great Gatsby", "The Greatest Story"),
+                     titles(store.fuzzySearch("GREAT", 0, 10)));
+        // alphabetically "The Great Gatsby" comes first, but it is three edits away
+        assertEquals(List.of("The Greatest Story", "The Great Gatsby"),
+                     titles(store.fuzzySearch("the greatest", 3, 10)));
+    }
+
+    @Test
+    void matchesEveryTitleWithinTheEditsOfAShortQuery()
+    {
+        final BookStore<Literature> store;
+
+        store = new BookStore<>("Test", NOVELS);
+
+        // a query no longer than the edits allowed matches anything
+        assertEquals(NOVELS.size(), store.fuzzySearch("xy", 2, 10).size());
+    }
+
+    @Test
+    void returnsNoMoreThanTheLimit()
+    {
+        final BookStore<Literature> store;
+
+        store = new BookStore<>("Test", NOVELS);
+
+        assertEquals(List.of("Great Expectations", "The Great Gatsby"), titles(store.fuzzySearch("great", 0, 2)));
+        assertTrue(store.fuzzySearch("great", 0, 0).isEmpty());
+    }
+
+    @Test
+    void seesNovelsAddedAndRemoved()
+    {
+        final BookStore<Literature> store;
+
+        store = new BookStore<>("Test", NOVELS);
+        store.addNovel(new Novel("Gatsby Again", "Nobody", 2020));
+        store.removeNovel("The Great Gatsby");
+
+        assertEquals(List.of("Gatsby Again", "Gatsby Returns"), titles(store.fuzzySearch("gatsbey", 1, 10)));
+    }
+
+    @Test
+    void rejectsBadArguments()
+    {
+        final BookStore<Literature> store;
+
+        store = new BookStore<>("Test", NOVELS);
+
+        assertThrows(IllegalArgumentException.class, () -> store.fuzzySearch(null, 1, 10));
+        assertThrows(IllegalArgumentException.class, () -> store.fuzzySearch("gatsby", -1, 10));
+        assertThrows(IllegalArgumentException.class, () -> store.fuzzySearch("gatsby", 1, -1));
+    }
+
+    /*
+     * Returns the titles of the given novels, in order.
+     */
+    private static List<String> titles(final List<Novel> novels)
+    {
+        return novels.stream().map(Novel::getTitle).toList();
+    }
+}
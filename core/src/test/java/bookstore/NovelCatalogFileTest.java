@@ -0,0 +1,183 @@
+package bookstore;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests that {@link NovelCatalogFile} reads back exactly what it wrote, and refuses files
+ * that are not catalogs.
+ *
+ * @version 1.0
+ */
+class NovelCatalogFileTest
+{
+    private static final int TRUNCATED_BYTES = 100;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void readsBackEveryRow() throws IOException
+    {
+        final Path             file;
+        final List<Novel>      novels;
+        final NovelCatalogFile catalog;
+
+        file   = directory.resolve("novels.cat");
+        novels = new ArrayList<>(SyntheticCatalog.novels(1_000));
+        novels.add(new Novel("Ünïcødé «Title» 书", "Åuthor", -44));
+        novels.add(new Novel("", "", 0));
+
+        NovelCatalogFile.write(file, novels);
+        catalog = NovelCatalogFile.open(file);
+
+        assertEquals(novels.size(), catalog.size());
+
+        for(int row = 0; row < novels.size(); ++row)
+        {
+            assertEquals(novels.get(row).toString(), catalog.get(row).toString());
+            assertEquals(novels.get(row).getTitle(), catalog.titleAt(row));
+            assertEquals(novels.get(row).getAuthor(), catalog.authorAt(row));
+            assertEquals(novels.get(row).getYearPublished(), catalog.yearAt(row));
+        }
+    }
+
+    @Test
+    void storesEachAuthorOnce() throws IOException
+    {
+        final Path        shared;
+        final Path        distinct;
+        final List<Novel> sameAuthor;
+        final List<Novel> ownAuthors;
+
+        shared     = directory.resolve("shared.cat");
+        distinct   = directory.resolve("distinct.cat");
+        sameAuthor = new ArrayList<>();
+        ownAuthors = new ArrayList<>();
+
+        for(int i = 0; i < 100; ++i)
+        {
+            sameAuthor.add(new Novel("Title " + i, "An Author With A Long Name", 1900));
+            ownAuthors.add(new Novel("Title " + i, "An Author With A Long Name " + i, 1900));
+        }
+
+        NovelCatalogFile.write(shared, sameAuthor);
+        NovelCatalogFile.write(distinct, ownAuthors);
+
+        assertTrue(Files.size(shared) < Files.size(distinct) / 2);
+    }
+
+    @Test
+    void rejectsBadRowIndexes() throws IOException
+    {
+        final Path             file;
+        final NovelCatalogFile catalog;
+
+        file = directory.resolve("novels.cat");
+        NovelCatalogFile.write(file, SyntheticCatalog.novels(3));
+        catalog = NovelCatalogFile.open(file);
+
+        assertThrows(IndexOutOfBoundsException.class, () -> catalog.get(3));
+        assertThrows(IndexOutOfBoundsException.class, () -> catalog.yearAt(-1));
+    }
+
+    @Test
+    void rejectsFilesThatAreNotCatalogs() throws IOException
+    {
+        final Path empty;
+        final Path text;
+        final Path truncated;
+        final Path catalog;
+
+        empty     = Files.write(directory.resolve("empty.cat"), new byte[0]);
+        text      = Files.writeString(directory.resolve("text.cat"), "title,author,year\n");
+        truncated = directory.resolve("truncated.cat");
+        catalog   = directory.resolve("whole.cat");
+
+        // keeps the header, which promises 100 rows, but only part of the columns
+        NovelCatalogFile.write(catalog, SyntheticCatalog.novels(100));
+        Files.write(truncated, Arrays.copyOf(Files.readAllBytes(catalog), TRUNCATED_BYTES));
+
+        assertThrows(IOException.class, () -> NovelCatalogFile.open(empty));
+        assertThrows(IOException.class, () -> NovelCatalogFile.open(text));
+        assertThrows(IOException.class, () -> NovelCatalogFile.open(truncated));
+    }
+
+    @Test
+    void failedWriteLeavesTheOldCatalog() throws IOException
+    {
+        final Path         file;
+        final byte[]       before;
+        final List<Novel>  withNull;
+        final List<Novel>  noAuthor;
+        final Stream<Path> files;
+
+        file     = directory.resolve("novels.cat");
+        withNull = new ArrayList<>(SyntheticCatalog.novels(10));
+        noAuthor = new ArrayList<>(SyntheticCatalog.novels(10));
+        withNull.add(null);
+        noAuthor.add(new Novel("No Author", null, 1999));
+
+        NovelCatalogFile.write(file, SyntheticCatalog.novels(5));
+        before = Files.readAllBytes(file);
+
+        assertThrows(IllegalArgumentException.class, () -> NovelCatalogFile.write(file, withNull));
+        assertThrows(IllegalArgumentException.class, () -> NovelCatalogFile.write(file, noAuthor));
+        assertArrayEquals(before, Files.readAllBytes(file));
+
+        files = Files.list(directory);
+
+        try(files)
+        {
+            assertEquals(1, files.count());
+        }
+    }
+
+    @Test
+    void storeOpenedFromACatalogHoldsEveryNovel() throws IOException
+    {
+        final Path                  file;
+        final BookStore<Literature> store;
+
+        file = directory.resolve("novels.cat");
+        NovelCatalogFile.write(file, Novel.createNovelList());
+        store = BookStore.fromCatalogFile("Catalog", file);
+
+        assertEquals(Novel.createNovelList().size(), store.getNovelCount());
+        assertEquals(new BookStore<>("Heap").getTitles(), store.getTitles());
+    }
+
+    @Test
+    void tableHoldsEveryRowWithOneIdPerAuthor() throws IOException
+    {
+        final Path        file;
+        final List<Novel> novels;
+        final NovelTable  table;
+
+        file   = directory.resolve("novels.cat");
+        novels = SyntheticCatalog.novels(2_000);
+        NovelCatalogFile.write(file, novels);
+        table  = NovelCatalogFile.open(file).toTable();
+
+        assertEquals(novels, table.novels());
+
+        for(int row = 0; row < novels.size(); ++row)
+        {
+            assertEquals(novels.get(row).getFoldedTitle(), table.novelAt(row).getFoldedTitle());
+            assertEquals(table.authorIdOf(novels.get(row).getAuthor()), table.authorIdAt(row));
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package bookstore;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests that {@link NovelDelimitedFile} parses CSV and TSV rows, quoting, headers and blank
+ * lines, and reports malformed rows by their byte offset.
+ *
+ * @version 1.0
+ */
+class NovelDelimitedFileTest
+{
+    private static final int LARGE_ROWS = 400_000;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void readsCommaSeparatedRowsWithAHeader() throws IOException
+    {
+        final List<Novel> novels;
+
+        novels = read("title,author,year\n" +
+                      "Dracula,Bram Stoker,1897\n" +
+                      "Emma,Jane Austen,1815\n", ',');
+
+        assertEquals(List.of("\"Dracula\" written by Bram Stoker in 1897",
+                             "\"Emma\" written by Jane Austen in 1815"), describe(novels));
+    }
+
+    @Test
+    void readsTabSeparatedRowsWithoutAHeader() throws IOException
+    {
+        final List<Novel> novels;
+
+        novels = read("Dracula\tBram Stoker\t1897\r\n" +
+                      "\r\n" +
+                      "Emma\tJane Austen\t 1815 \textra\tcolumns\r\n", '\t');
+
+        assertEquals(List.of("\"Dracula\" written by Bram Stoker in 1897",
+                             "\"Emma\" written by Jane Austen in 1815"), describe(novels));
+    }
+
+    @Test
+    void findsTheHeaderAfterLeadingBlankLines() throws IOException
+    {
+        final List<Novel> novels;
+        final IOException secondLine;
+
+        novels = read("\n" +
+                      "\r\n" +
+                      "title,author,year\r\n" +
+                      "Dracula,Bram Stoker,1897\r\n", ',');
+
+        assertEquals(List.of("\"Dracula\" written by Bram Stoker in 1897"), describe(novels));
+
+        // only the first non-blank line may be a header
+        secondLine = assertThrows(IOException.class, () -> read("\n" +
+                                                                "Dracula,Bram Stoker,1897\n" +
+                                                                "title,author,year\n", ','));
+
+        assertTrue(secondLine.getMessage().contains("byte 26"), secondLine.getMessage());
+    }
+
+    @Test
+    void unquotesFields() throws IOException
+    {
+        final List<Novel> novels;
+
+        novels = read("\"Crime, and Punishment\",Fyodor Dostoevsky,1866\n" +
+                      "\"The \"\"Quoted\"\" One\",\"\",-50\n" +
+                      "Ünïcødé,Åuthor,2000\n", ',');
+
+        assertEquals(List.of("\"Crime, and Punishment\" written by Fyodor Dostoevsky in 1866",
+                             "\"The \"Quoted\" One\" written by  in -50",
+                             "\"Ünïcødé\" written by Åuthor in 2000"), describe(novels));
+    }
+
+    @Test
+    void reportsMalformedRowsByOffset()
+    {
+        final IOException notANumber;
+
+        notANumber = assertThrows(IOException.class, () -> read("Dracula,Bram Stoker,1897\n" +
+                                                                "Emma,Jane Austen,soon\n", ','));
+
+        assertTrue(notANumber.getMessage().contains("byte 25"), notANumber.getMessage());
+        assertThrows(IOException.class, () -> read("Dracula,Bram Stoker\n", ','));
+        assertThrows(IOException.class, () -> read("\"Dracula,Bram Stoker,1897\n", ','));
+        assertThrows(IOException.class, () -> read("\"Dracula\"x,Bram Stoker,1897\n", ','));
+        assertThrows(IOException.class, () -> read("Emma,Jane Austen,1815\n" +
+                                                    "Dracula,Bram Stoker,99999999999\n", ','));
+    }
+
+    @Test
+    void rejectsDelimitersThatCannotSeparateFields()
+    {
+        assertThrows(IllegalArgumentException.class, () -> read("", '"'));
+        assertThrows(IllegalArgumentException.class, () -> read("", '\n'));
+        assertThrows(IllegalArgumentException.class, () -> read("", 'é'));
+    }
+
+    @Test
+    void keepsFileOrderAcrossParallelChunks() throws IOException
+    {
+        final List<Novel>   expected;
+        final StringBuilder text;
+        final Path          file;
+        final ForkJoinPool  pool;
+
+        // enough rows to span several chunks
+        expected = SyntheticCatalog.novels(LARGE_ROWS);
+        text     = new StringBuilder("title,author,year\n");
+
+        for(Novel novel : expected)
+        {
+            text.append(novel.getTitle()).append(',').append(novel.getAuthor()).append(',')
+                .append(novel.getYearPublished()).append('\n');
+        }
+
+        file = Files.writeString(directory.resolve("large.csv"), text, StandardCharsets.UTF_8);
+
+        assertTrue(Files.size(file) > 8 << 20);
+
+        pool = new ForkJoinPool(4);
+
+        try(pool)
+        {
+            assertEquals(describe(expected), describe(NovelDelimitedFile.read(file, ',', pool)));
+        }
+    }
+
+    /*
+     * Writes the text to a file and reads it back.
+     */
+    private List<Novel> read(final String text, final char delimiter) throws IOException
+    {
+        final Path file;
+
+        file = Files.writeString(directory.resolve("novels.txt"), text, StandardCharsets.UTF_8);
+
+        return NovelDelimitedFile.read(file, delimiter);
+    }
+
+    /*
+     * Describes each novel by its title, author and year.
+     */
+    private static List<String> describe(final List<Novel> novels)
+    {
+        return novels.stream().map(Novel::toString).toList();
+    }
+}
@@ -0,0 +1,188 @@
+package bookstore;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests that {@link NovelTable} reads back every column it stored, and that the lists it
+ * hands out are not changed by later rows.
+ *
+ * @version 1.0
+ */
+class NovelTableTest
+{
+    private static final int CATALOG_SIZE = 5_000;
+
+    @Test
+    void readsBackEveryColumn()
+    {
+        final List<Novel> novels;
+        final NovelTable  table;
+
+        novels = new ArrayList<>(SyntheticCatalog.novels(CATALOG_SIZE));
+        novels.add(new Novel("Ünïcødé «Title» 书", "Åuthor", -44));
+        novels.add(new Novel("", null, 0));
+
+        // starts small, so every column grows many times
+        table = table(novels, 0);
+
+        assertEquals(novels.size(), table.size());
+        assertEquals(novels, table.novels());
+
+        for(int row = 0; row < novels.size(); ++row)
+        {
+            final Novel novel;
+
+            novel = novels.get(row);
+
+            assertEquals(novel.getTitle(), table.titleAt(row));
+            assertEquals(novel.getTitle().length(), table.titleLengthAt(row));
+            assertEquals(novel.getTitle().hashCode(), table.titleHashAt(row));
+            assertTrue(table.titleEquals(row, novel.getTitle()));
+            assertEquals(novel.getAuthor(), table.authorAt(row));
+            assertEquals(novel.getYearPublished(), table.yearAt(row));
+            assertEquals(novel.getFoldedTitle(), table.novelAt(row).getFoldedTitle());
+        }
+    }
+
+    @Test
+    void comparesTitlesAsStringsDo()
+    {
+        final List<Novel> novels;
+        final NovelTable  table;
+
+        novels = List.of(new Novel("The Great Gatsby", "F. Scott Fitzgerald", 1925),
+                         new Novel("the great", "Nobody", 2000),
+                         new Novel("Great Expectations", "Charles Dickens", 1861),
+                         new Novel("THE GREAT GATSBY", "Nobody", 2010));
+        table  = table(novels, novels.size());
+
+        for(int first = 0; first < novels.size(); ++first)
+        {
+            final String folded;
+
+            folded = novels.get(first).getFoldedTitle();
+
+            for(int second = 0; second < novels.size(); ++second)
+            {
+                assertEquals(Integer.signum(novels.get(first).getTitle().compareTo(novels.get(second).getTitle())),
+                             Integer.signum(table.compareTitles(first, second)));
+                assertEquals(Integer.signum(novels.get(first).compareTo(novels.get(second))),
+                             Integer.signum(table.compareFoldedTitles(first, second)));
+                assertEquals(Integer.signum(novels.get(second).getFoldedTitle().compareTo(folded)),
+                             Integer.signum(table.compareFoldedTitle(second, folded)));
+                assertEquals(novels.get(second).getFoldedTitle().startsWith(folded),
+                             table.foldedTitleStartsWith(second, folded));
+                assertEquals(novels.get(second).titleContains(folded), table.foldedTitleContains(second, folded));
+            }
+        }
+    }
+
+    @Test
+    void sharesEachAuthorByDictionaryId()
+    {
+        final NovelTable table;
+        final int        first;
+        final int        second;
+
+        table  = new NovelTable(0);
+        first  = table.add(new Novel("Dracula", "Bram Stoker", 1897));
+        second = table.add(new Novel("Dracula's Guest", new String("Bram Stoker"), 1914));
+
+        assertEquals(table.authorIdAt(first), table.authorIdAt(second));
+        assertEquals(table.authorIdAt(first), table.authorIdOf("Bram Stoker"));
+        assertSame(table.novelAt(first).getAuthor(), table.novelAt(second).getAuthor());
+        assertEquals(AuthorDictionary.NO_AUTHOR, table.authorIdOf("Nobody"));
+        assertEquals(AuthorDictionary.NO_AUTHOR, table.authorIdAt(table.add(new Novel("Anonymous", null, 1900))));
+        assertNull(table.authorAt(2));
+    }
+
+    @Test
+    void listsKeepReadingTheRowsTheyWereMadeFrom()
+    {
+        final NovelTable   table;
+        final List<Novel>  novels;
+        final List<String> titles;
+        final List<Novel>  before;
+
+        table  = table(SyntheticCatalog.novels(100), 100);
+        novels = table.novels();
+        titles = table.titles();
+        before = List.copyOf(novels);
+
+        // enough rows to reallocate every column the lists were made from
+        for(Novel novel : SyntheticCatalog.novels(CATALOG_SIZE).subList(100, CATALOG_SIZE))
+        {
+            table.add(novel);
+        }
+
+        table.remove(0);
+
+        assertEquals(before, novels);
+        assertEquals(before.stream().map(Novel::getTitle).toList(), titles);
+        assertThrows(IndexOutOfBoundsException.class, () -> novels.get(100));
+        assertThrows(UnsupportedOperationException.class, () -> novels.set(0, before.get(1)));
+    }
+
+    @Test
+    void compactingKeepsOnlyLiveRowsInOrder()
+    {
+        final List<Novel> novels;
+        final NovelTable  table;
+        final NovelTable  compacted;
+        final List<Novel> live;
+
+        novels = SyntheticCatalog.novels(CATALOG_SIZE);
+        table  = table(novels, CATALOG_SIZE);
+        live   = new ArrayList<>();
+
+        for(int row = 0; row < CATALOG_SIZE; ++row)
+        {
+            if(row % 3 == 0)
+            {
+                table.remove(row);
+            }
+            else
+            {
+                live.add(novels.get(row));
+            }
+        }
+
+        table.remove(0);
+        compacted = table.compacted();
+
+        assertFalse(table.isLive(0));
+        assertEquals(CATALOG_SIZE, table.rowCount());
+        assertEquals(live.size(), table.size());
+        assertEquals(live, table.novels());
+        assertEquals(live.size(), compacted.rowCount());
+        assertEquals(0, compacted.deadCount());
+        assertEquals(live, compacted.novels());
+    }
+
+    /*
+     * Returns a table holding the novels as rows, in list order.
+     */
+    private static NovelTable table(final List<Novel> novels, final int expectedRows)
+    {
+        final NovelTable table;
+
+        table = new NovelTable(expectedRows);
+
+        for(Novel novel : novels)
+        {
+            table.add(novel);
+        }
+
+        return table;
+    }
+}
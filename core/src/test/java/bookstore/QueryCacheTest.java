@@ -0,0 +1,161 @@
+package bookstore;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests that {@link QueryCache} answers as its store would, and forgets answers the store
+ * has outdated.
+ *
+ * @version 1.0
+ */
+class QueryCacheTest
+{
+    private static final long BUDGET_BYTES = 64L << 10;
+    private static final int  SCAN_LENGTH  = 1_000;
+    private static final int  BURSTS       = 20;
+    private static final int  POPULAR_ASKS = 5;
+
+    @Test
+    void answersMatchTheStore()
+    {
+        final BookStore<Literature> store;
+        final QueryCache            cache;
+
+        store = new BookStore<>("Test");
+        cache = new QueryCache(store, BUDGET_BYTES);
+
+        for(int pass = 0; pass < 2; ++pass)
+        {
+            assertEquals(store.howManyBooksContain("the"), cache.howManyBooksContain("the"));
+            assertEquals(store.whichPercentWrittenBetween(1900, 1950), cache.whichPercentWrittenBetween(1900, 1950));
+            assertEquals(store.streamGroupByDecade(1925).toList(), cache.getGroupByDecade(1925));
+            assertEquals(store.streamBookTitle("war").toList(), cache.searchTitles("war"));
+            assertEquals(titles(store.fuzzySearch("gatsbey", 1, 5)), titles(cache.fuzzySearch("gatsbey", 1, 5)));
+            assertEquals(store.titlesStartingWith("the", 5), cache.titlesStartingWith("the", 5));
+            assertEquals(titles(store.page(null, 5)), titles(cache.page(null, 5)));
+        }
+
+        assertEquals(7, cache.getMissCount());
+        assertEquals(7, cache.getHitCount());
+        assertEquals(7, cache.size());
+    }
+
+    @Test
+    void repeatedLookupReturnsTheCachedAnswer()
+    {
+        final QueryCache  cache;
+        final List<Novel> first;
+
+        cache = new QueryCache(new BookStore<>("Test"), BUDGET_BYTES);
+        first = cache.searchTitles("the");
+
+        assertSame(first, cache.searchTitles("the"));
+        assertSame(first, cache.searchTitles("the"));
+        assertEquals(1, cache.getMissCount());
+        assertEquals(2, cache.getHitCount());
+    }
+
+    @Test
+    void decadeYearsShareOneEntry()
+    {
+        final QueryCache cache;
+
+        cache = new QueryCache(new BookStore<>("Test"), BUDGET_BYTES);
+
+        cache.getGroupByDecade(1920);
+        cache.getGroupByDecade(1929);
+
+        assertEquals(1, cache.size());
+        assertEquals(1, cache.getHitCount());
+    }
+
+    @Test
+    void changingTheStoreDropsOutdatedAnswers()
+    {
+        final BookStore<Literature> store;
+        final QueryCache            cache;
+        final int                   before;
+
+        store  = new BookStore<>("Test");
+        cache  = new QueryCache(store, BUDGET_BYTES);
+        before = cache.howManyBooksContain("zebra");
+
+        store.addNovel(new Novel("The Zebra Crossing", "Someone", 2001));
+
+        assertEquals(before + 1, cache.howManyBooksContain("zebra"));
+        assertEquals(2, cache.getMissCount());
+
+        store.removeNovel("The Zebra Crossing");
+
+        assertEquals(before, cache.howManyBooksContain("zebra"));
+    }
+
+    @Test
+    void invalidateAllEmptiesTheCache()
+    {
+        final QueryCache cache;
+
+        cache = new QueryCache(new BookStore<>("Test"), BUDGET_BYTES);
+        cache.howManyBooksContain("the");
+        cache.invalidateAll();
+
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getWeightedSize());
+
+        cache.howManyBooksContain("the");
+
+        assertEquals(2, cache.getMissCount());
+    }
+
+    @Test
+    void frequentAnswersSurviveAScanOfOneOffQueries()
+    {
+        final QueryCache cache;
+        int              oneOff;
+
+        cache  = new QueryCache(new BookStore<>("Test"), BUDGET_BYTES);
+        oneOff = 0;
+
+        // the popular query keeps being asked between bursts of queries asked only once,
+        // each burst longer than the cache holds, so plain LRU would evict it every time
+        for(int burst = 0; burst < BURSTS; ++burst)
+        {
+            for(int i = 0; i < POPULAR_ASKS; ++i)
+            {
+                cache.howManyBooksContain("the");
+            }
+
+            for(int i = 0; i < SCAN_LENGTH; ++i)
+            {
+                cache.howManyBooksContain("one-off " + oneOff++);
+            }
+        }
+
+        assertTrue(cache.getEvictionCount() > 0);
+        assertTrue(cache.getWeightedSize() <= BUDGET_BYTES);
+        assertTrue(cache.size() < SCAN_LENGTH);
+        assertEquals(BURSTS * POPULAR_ASKS - 1, cache.getHitCount());
+    }
+
+    @Test
+    void rejectsBadArguments()
+    {
+        assertThrows(IllegalArgumentException.class, () -> new QueryCache(null, BUDGET_BYTES));
+        assertThrows(IllegalArgumentException.class, () -> new QueryCache(new BookStore<>("Test"), 0));
+    }
+
+    /*
+     * Returns the titles of the given novels, in order.
+     */
+    private static List<String> titles(final List<Novel> novels)
+    {
+        return novels.stream().map(Novel::getTitle).toList();
+    }
+}
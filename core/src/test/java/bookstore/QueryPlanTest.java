@@ -0,0 +1,128 @@
+package bookstore;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Tests that whichever index {@link BookStore#findNovels(CompiledQuery)} and
+ * {@link BookStore#countNovels(CompiledQuery)} pick, they answer exactly as a scan of the
+ * whole catalog would, limits included.
+ *
+ * @version 1.0
+ */
+class QueryPlanTest
+{
+    private static final int      CATALOG_SIZE = 20_000;
+    private static final String[] TERMS        = {null, "a", "th", "the", "heart", "golden river", "zzz"};
+    private static final int[][]  RANGES       = {null,
+                                                  {SyntheticCatalog.FIRST_YEAR, SyntheticCatalog.FIRST_YEAR},
+                                                  {SyntheticCatalog.FIRST_YEAR, SyntheticCatalog.FIRST_YEAR + 20},
+                                                  {SyntheticCatalog.FIRST_YEAR + 50,
+                                                   SyntheticCatalog.FIRST_YEAR + SyntheticCatalog.YEAR_SPAN},
+                                                  {0, 0}};
+    private static final int[]    LIMITS       = {-1, 0, 1, 20, 5_000};
+
+    @Test
+    void everyPlanMatchesAFullScan()
+    {
+        final BookStore<Literature> store;
+
+        store = new BookStore<>("Test", SyntheticCatalog.novels(CATALOG_SIZE));
+
+        assertEveryQueryMatchesAFullScan(store);
+    }
+
+    @Test
+    void plansStayCorrectAfterTheCatalogChanges()
+    {
+        final BookStore<Literature> store;
+        final List<Novel>           added;
+        final List<Novel>           remaining;
+
+        store = new BookStore<>("Test", SyntheticCatalog.novels(CATALOG_SIZE));
+        added = new ArrayList<>();
+
+        store.removeIf(novel -> novel.getYearPublished() % 3 == 0);
+        remaining = store.getNovels();
+
+        // removing most novels one at a time compacts the store's table along the way
+        for(int i = 0; i < remaining.size(); ++i)
+        {
+            if(i % 4 != 0)
+            {
+                store.removeNovel(remaining.get(i).getTitle());
+            }
+        }
+
+        for(int i = 0; i < 100; ++i)
+        {
+            added.add(new Novel("The Golden River Returns " + i, SyntheticCatalog.author(i), SyntheticCatalog.FIRST_YEAR + i));
+            store.addNovel(added.get(i));
+        }
+
+        store.removeNovel(added.get(0).getTitle());
+
+        assertEveryQueryMatchesAFullScan(store);
+    }
+
+    /*
+     * Runs every combination of author, title term, year range and limit, and compares
+     * each answer with a scan of the store's whole catalog.
+     */
+    private static void assertEveryQueryMatchesAFullScan(final BookStore<Literature> store)
+    {
+        final List<Novel> catalog;
+
+        catalog = store.getNovels();
+
+        for(String author : new String[] {null, SyntheticCatalog.author(7)})
+        {
+            for(String term : TERMS)
+            {
+                for(int[] range : RANGES)
+                {
+                    for(int limit : LIMITS)
+                    {
+                        final LiteratureQuery<Novel> builder;
+                        final CompiledQuery<Novel>   query;
+                        final String                 description;
+
+                        builder     = new LiteratureQuery<>();
+                        description = author + ", " + term + ", " + (range == null ? null : range[0] + "-" + range[1]) +
+                                      ", limit " + limit;
+
+                        if(author != null)
+                        {
+                            builder.writtenBy(author);
+                        }
+
+                        if(term != null)
+                        {
+                            builder.titleContains(term);
+                        }
+
+                        if(range != null)
+                        {
+                            builder.publishedBetween(range[0], range[1]);
+                        }
+
+                        if(limit >= 0)
+                        {
+                            builder.limit(limit);
+                        }
+
+                        query = builder.compile();
+
+                        assertEquals(query.execute(catalog, Novel::getTitle), store.findNovels(query, Novel::getTitle),
+                                     description);
+                        assertEquals(query.count(catalog), store.countNovels(query), description);
+                    }
+                }
+            }
+        }
+    }
+}
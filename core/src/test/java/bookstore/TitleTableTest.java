@@ -0,0 +1,117 @@
+package bookstore;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests {@link TitleTable} against a {@link HashMap} put through the same operations.
+ *
+ * @version 1.0
+ */
+class TitleTableTest
+{
+    private static final int OPERATIONS = 50_000;
+    private static final int KEY_RANGE  = 2_000;
+    private static final int SEED       = 17;
+
+    @Test
+    void putGetAndRemoveAgreeWithAHashMap()
+    {
+        final NovelTable           novels;
+        final TitleTable           table;
+        final Map<String, Integer> expected;
+        final Random               random;
+
+        // sized far below the key range, so the table resizes many times
+        novels   = new NovelTable(0);
+        table    = new TitleTable(novels, 1);
+        expected = new HashMap<>();
+        random   = new Random(SEED);
+
+        for(int i = 0; i < OPERATIONS; ++i)
+        {
+            final String title;
+
+            title = "Title " + random.nextInt(KEY_RANGE);
+
+            if(random.nextInt(3) == 0)
+            {
+                assertEquals(expected.getOrDefault(title, NovelTable.NO_ROW), table.remove(title), title);
+                expected.remove(title);
+            }
+            else
+            {
+                final int row;
+
+                row = novels.add(new Novel(title, "Author", i));
+
+                assertEquals(expected.getOrDefault(title, NovelTable.NO_ROW), table.put(row), title);
+                expected.put(title, row);
+            }
+
+            assertEquals(expected.size(), table.size());
+        }
+
+        for(int i = 0; i < KEY_RANGE; ++i)
+        {
+            final String title;
+
+            title = "Title " + i;
+
+            assertEquals(expected.getOrDefault(title, NovelTable.NO_ROW), table.get(title), title);
+            assertEquals(expected.containsKey(title), table.containsKey(title), title);
+        }
+    }
+
+    @Test
+    void removalKeepsEveryCollidingTitleReachable()
+    {
+        final NovelTable novels;
+        final TitleTable table;
+
+        novels = new NovelTable(KEY_RANGE);
+        table  = new TitleTable(novels, KEY_RANGE);
+
+        for(int i = 0; i < KEY_RANGE; ++i)
+        {
+            table.put(novels.add(new Novel("Title " + i, "Author", i)));
+        }
+
+        // removing every other title shifts the rest of each probe run back over the holes
+        for(int i = 0; i < KEY_RANGE; i += 2)
+        {
+            assertEquals(i, table.remove("Title " + i));
+        }
+
+        for(int i = 0; i < KEY_RANGE; ++i)
+        {
+            assertEquals(i % 2 == 0 ? NovelTable.NO_ROW : i, table.get("Title " + i));
+        }
+
+        assertEquals(KEY_RANGE / 2, table.size());
+    }
+
+    @Test
+    void nullTitleIsAbsent()
+    {
+        final NovelTable novels;
+        final TitleTable table;
+
+        novels = new NovelTable(0);
+        table  = new TitleTable(novels, 0);
+        table.put(novels.add(new Novel("Dracula", "Bram Stoker", 1897)));
+
+        assertEquals(NovelTable.NO_ROW, table.get(null));
+        assertFalse(table.containsKey(null));
+        assertEquals(NovelTable.NO_ROW, table.remove(null));
+        assertTrue(table.containsKey("Dracula"));
+        assertFalse(table.containsKey("dracula"));
+    }
+}
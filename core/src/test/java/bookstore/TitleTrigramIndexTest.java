@@ -0,0 +1,154 @@
+package bookstore;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests {@link TitleTrigramIndex} against a plain scan of every title.
+ *
+ * @version 1.0
+ */
+class TitleTrigramIndexTest
+{
+    private static final String[] QUERIES      = {"", "a", "th", "the", "THE", "heart", "golden river", "zz", "12"};
+    private static final int      CATALOG_SIZE = 2_000;
+
+    @Test
+    void searchAndCountMatchAScanOfEveryTitle()
+    {
+        final NovelTable        table;
+        final TitleTrigramIndex index;
+
+        table = table(SyntheticCatalog.novels(CATALOG_SIZE));
+        index = new TitleTrigramIndex(table);
+
+        for(String query : QUERIES)
+        {
+            final int[] expected;
+
+            expected = scan(table, query);
+
+            assertArrayEquals(expected, index.search(query, ChunkedExecutor.SEQUENTIAL).value(), query);
+            assertEquals(expected.length, index.count(query, ChunkedExecutor.SEQUENTIAL).value(), query);
+        }
+    }
+
+    @Test
+    void parallelSearchKeepsCatalogOrder()
+    {
+        final NovelTable        table;
+        final TitleTrigramIndex index;
+        final ChunkedExecutor   parallel;
+
+        table    = table(SyntheticCatalog.novels(CATALOG_SIZE));
+        index    = new TitleTrigramIndex(table);
+        parallel = new ChunkedExecutor(ForkJoinPool.commonPool(), 16);
+
+        for(String query : QUERIES)
+        {
+            assertArrayEquals(scan(table, query), index.search(query, parallel).value(), query);
+            assertEquals(scan(table, query).length, index.count(query, parallel).value(), query);
+        }
+    }
+
+    @Test
+    void skipsDeadRowsAndSeesNewOnes()
+    {
+        final NovelTable        table;
+        final TitleTrigramIndex index;
+
+        table = table(SyntheticCatalog.novels(CATALOG_SIZE));
+        index = new TitleTrigramIndex(table);
+
+        for(int row = 0; row < CATALOG_SIZE; row += 3)
+        {
+            table.remove(row);
+        }
+
+        index.add(table.add(new Novel("The Heart of the Golden River", "Someone", 1900)));
+
+        for(String query : QUERIES)
+        {
+            assertArrayEquals(scan(table, query), index.search(query, ChunkedExecutor.SEQUENTIAL).value(), query);
+            assertEquals(scan(table, query).length, index.count(query, ChunkedExecutor.SEQUENTIAL).value(), query);
+        }
+    }
+
+    @Test
+    void fuzzySearchSkipsDeadRows()
+    {
+        final NovelTable        table;
+        final TitleTrigramIndex index;
+
+        table = table(List.of(new Novel("Dracula", "Bram Stoker", 1897),
+                              new Novel("Dracula's Guest", "Bram Stoker", 1914)));
+        index = new TitleTrigramIndex(table);
+        table.remove(0);
+
+        assertEquals(List.of(new TitleTrigramIndex.Match(1, 1)),
+                     index.fuzzySearch("dracola", 1, ChunkedExecutor.SEQUENTIAL).value());
+    }
+
+    @Test
+    void searchFiltersCandidatesForLongQueries()
+    {
+        final NovelTable        table;
+        final TitleTrigramIndex index;
+
+        table = table(SyntheticCatalog.novels(CATALOG_SIZE));
+        index = new TitleTrigramIndex(table);
+
+        assertTrue(index.search("golden river", ChunkedExecutor.SEQUENTIAL).examined() < CATALOG_SIZE);
+        assertEquals(CATALOG_SIZE, index.search("a", ChunkedExecutor.SEQUENTIAL).examined());
+        assertFalse(TitleTrigramIndex.canNarrow("ab"));
+        assertTrue(TitleTrigramIndex.canNarrow("abc"));
+    }
+
+    /*
+     * Returns a table holding the novels as rows, in list order.
+     */
+    private static NovelTable table(final List<Novel> novels)
+    {
+        final NovelTable table;
+
+        table = new NovelTable(novels.size());
+
+        for(Novel novel : novels)
+        {
+            table.add(novel);
+        }
+
+        return table;
+    }
+
+    /*
+     * Returns every live row whose title contains the query, ignoring case, in row order.
+     */
+    private static int[] scan(final NovelTable table, final String query)
+    {
+        final String        folded;
+        final List<Integer> matches;
+
+        folded  = Novel.foldTitle(query);
+        matches = new ArrayList<>();
+
+        for(int row = 0; row < table.rowCount(); ++row)
+        {
+            if(table.isLive(row) && table.titleAt(row).toLowerCase(Locale.ROOT).contains(folded))
+            {
+                matches.add(row);
+            }
+        }
+
+        return matches.stream().mapToInt(Integer::intValue).toArray();
+    }
+}
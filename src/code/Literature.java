@@ -1,4 +0,0 @@
-abstract class Literature
-{
-   public abstract String getTitle();
-}